@@ -0,0 +1,67 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drag of 100 move events across the whole slide, 8 ms apart.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DragBenchmark {
+
+    private static final int EVENTS = 100;
+    private static final long EVENT_NANOS = 8000000;
+
+    private SlideGeometry mGeometry;
+    private UnlockSlideController mController;
+    private float[] mEventX;
+    private int mUnlocks;
+
+    @Setup
+    public void setUp() {
+        mGeometry = Labels.layout(Labels.measure(Labels.SHORT));
+        mController = new UnlockSlideController(mGeometry);
+        mController.setListener(new UnlockSlideController.Listener() {
+            @Override
+            public void onStateChanged(int state) {
+            }
+
+            @Override
+            public void onUnlock(long crossingTimeNanos) {
+                mUnlocks++;
+            }
+
+            @Override
+            public void onResetFinished(long resetDurationNanos) {
+            }
+        });
+        mEventX = new float[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            mEventX[i] = 100 + (mGeometry.getWidth() + 100f) * i / EVENTS;
+        }
+    }
+
+    @Benchmark
+    public int drag100Events() {
+        float y = mGeometry.getThumbTop() + 1;
+        if (!mController.onTouch(UnlockSlideController.ACTION_DOWN, mEventX[0], y, 0)) {
+            return -1;
+        }
+        for (int i = 0; i < EVENTS; i++) {
+            mController.onTouch(UnlockSlideController.ACTION_MOVE, mEventX[i], y, i * EVENT_NANOS);
+        }
+        int dragProgressX = mController.getDragProgress();
+        // release without the reset animation, it's measured by GestureBenchmark
+        mController.jumpToIdle(EVENTS * EVENT_NANOS, false);
+        return mUnlocks + dragProgressX;
+    }
+}
@@ -0,0 +1,43 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame work of {@code UnlockSlideView.onDraw} at different drag offsets,
+ * without the canvas calls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DrawFrameBenchmark {
+
+    @Param({"0", "200", "450", "765"})
+    public int dragProgressX;
+
+    private SlideGeometry mGeometry;
+    private LabelText mLabelText;
+
+    @Setup
+    public void setUp() {
+        mLabelText = Labels.measure(Labels.SHORT);
+        mGeometry = Labels.layout(mLabelText);
+    }
+
+    @Benchmark
+    public int drawFrame() {
+        int thumbLeft = mGeometry.getThumbLeft(dragProgressX);
+        int thumbRight = mGeometry.getThumbRight(dragProgressX);
+        int visibleStart = mLabelText.getVisibleStart(mGeometry.getTextAvailableWidth(dragProgressX));
+        int xPos = (int) (mGeometry.getTextEnd() - mLabelText.getWidth(visibleStart));
+        return thumbLeft + thumbRight + visibleStart + xPos + mGeometry.getTextBaseline();
+    }
+}
@@ -0,0 +1,69 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole gestures through {@link UnlockSlideController}: a short drag released into the reset animation
+ * and a fast drag released into a fling to unlock, frames ticked at 60 fps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GestureBenchmark {
+
+    private static final int EVENTS = 10;
+    private static final long EVENT_NANOS = 8000000;
+    private static final long FRAME_NANOS = 16666667;
+    private static final long RESET_DURATION_NANOS = 333000000;
+
+    private SlideGeometry mGeometry;
+    private UnlockSlideController mController;
+
+    @Setup
+    public void setUp() {
+        mGeometry = Labels.layout(Labels.measure(Labels.SHORT));
+        mController = new UnlockSlideController(mGeometry);
+        mController.setResetDurationNanos(RESET_DURATION_NANOS);
+        mController.setFlingEnabled(true);
+        mController.setFlingVelocity(1800, 24000);
+        mController.setFlingDeceleration(30000);
+    }
+
+    @Benchmark
+    public long dragAndReset() {
+        return gesture(mGeometry.getMaxProgress() / 2 / EVENTS, EVENTS * EVENT_NANOS);
+    }
+
+    @Benchmark
+    public long flingToUnlock() {
+        return gesture(mGeometry.getMaxProgress() / 3 / EVENTS, EVENT_NANOS);
+    }
+
+    private long gesture(int step, long releaseDelayNanos) {
+        float x = mGeometry.getThumbLeft(0) + 1;
+        float y = mGeometry.getThumbTop() + 1;
+        long time = 0;
+        mController.onTouch(UnlockSlideController.ACTION_DOWN, x, y, time);
+        for (int i = 0; i < EVENTS; i++) {
+            x += step;
+            time += EVENT_NANOS;
+            mController.onTouch(UnlockSlideController.ACTION_MOVE, x, y, time);
+        }
+        time += releaseDelayNanos;
+        mController.onTouch(UnlockSlideController.ACTION_UP, x, y, time);
+        long checksum = 0;
+        while (mController.onFrame(time)) {
+            checksum += mController.getDragProgress();
+            time += FRAME_NANOS;
+        }
+        return checksum + time;
+    }
+}
@@ -0,0 +1,50 @@
+package com.alexlytvynenko.unlockslideview;
+
+/**
+ * Labels and layout shared by benchmarks, sizes are of a 1080px wide view on a xxhdpi screen.
+ */
+final class Labels {
+
+    static final String SHORT = "SLIDE TO UNLOCK";
+    static final String LONG = "Slide the button all the way to the right to confirm and pay for your order";
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 150;
+    private static final int THUMB_SIZE = 120;
+    private static final int THUMB_PADDING = 15;
+    private static final float ELLIPSIS_WIDTH = 30;
+
+    private Labels() {
+    }
+
+    static LabelText measure(String text) {
+        LabelText labelText = new LabelText();
+        measure(labelText, text);
+        return labelText;
+    }
+
+    /**
+     * Fill advances the way {@code UnlockSlideView} does with the text paint
+     */
+    static void measure(LabelText labelText, String text) {
+        labelText.setText(text);
+        char[] chars = labelText.getChars();
+        float[] advances = labelText.getAdvances();
+        for (int i = 0; i < labelText.length(); i++) {
+            advances[i] = chars[i] == ' ' ? 14 : 24 + chars[i] % 9;
+        }
+        labelText.onMeasured(ELLIPSIS_WIDTH);
+    }
+
+    static SlideGeometry layout(LabelText labelText) {
+        SlideGeometry geometry = new SlideGeometry();
+        layout(geometry, labelText);
+        return geometry;
+    }
+
+    static void layout(SlideGeometry geometry, LabelText labelText) {
+        int textWidth = (int) labelText.getWidth();
+        geometry.update(WIDTH, HEIGHT, THUMB_SIZE, THUMB_SIZE, THUMB_PADDING,
+                (WIDTH + THUMB_SIZE) / 2 - textWidth / 2, textWidth, -20, 95);
+    }
+}
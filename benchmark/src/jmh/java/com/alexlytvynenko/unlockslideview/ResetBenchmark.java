@@ -0,0 +1,45 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full reset animation from the end of the slide, ticked at 60 fps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResetBenchmark {
+
+    private static final long FRAME_NANOS = 16666667;
+    private static final long RESET_DURATION_NANOS = 333000000;
+
+    private SlideGeometry mGeometry;
+    private LabelText mLabelText;
+    private SlideAnimator mAnimator;
+
+    @Setup
+    public void setUp() {
+        mLabelText = Labels.measure(Labels.SHORT);
+        mGeometry = Labels.layout(mLabelText);
+        mAnimator = new SlideAnimator();
+    }
+
+    @Benchmark
+    public int resetSequence() {
+        int checksum = 0;
+        mAnimator.start(mGeometry.getMaxProgress(), 0, RESET_DURATION_NANOS);
+        for (long frameTime = 0; mAnimator.isRunning(); frameTime += FRAME_NANOS) {
+            int dragProgressX = mAnimator.getPosition(mAnimator.getFraction(frameTime));
+            checksum += mLabelText.getVisibleStart(mGeometry.getTextAvailableWidth(dragProgressX));
+        }
+        return checksum;
+    }
+}
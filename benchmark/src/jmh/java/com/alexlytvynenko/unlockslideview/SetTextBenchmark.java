@@ -0,0 +1,43 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Label update of {@code UnlockSlideView.setText} for short and long labels.
+ * Glyph advances come from a fixed table because text shaping needs the Android runtime.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SetTextBenchmark {
+
+    @Param({"short", "long"})
+    public String label;
+
+    private String mText;
+    private LabelText mLabelText;
+    private SlideGeometry mGeometry;
+
+    @Setup
+    public void setUp() {
+        mText = "long".equals(label) ? Labels.LONG : Labels.SHORT;
+        mLabelText = new LabelText();
+        mGeometry = new SlideGeometry();
+    }
+
+    @Benchmark
+    public int setText() {
+        Labels.measure(mLabelText, mText);
+        Labels.layout(mGeometry, mLabelText);
+        return mGeometry.getTextEnd();
+    }
+}
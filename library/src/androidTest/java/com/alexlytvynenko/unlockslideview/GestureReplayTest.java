@@ -0,0 +1,222 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.content.res.AssetManager;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Instrumentation test replaying gestures in the format of {@link GestureRecorder} against {@link UnlockSlideView}
+ * at different refresh rates. Recordings put to the {@code gestures} assets directory of the test are replayed
+ * as a regression corpus.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GestureReplayTest {
+
+    private static final long MS = 1000000L;
+    private static final int[] REFRESH_RATES = {60, 90, 120, 240};
+    private static final long RESET_DURATION_NANOS = 200 * MS;
+
+    @Test
+    public void dragToEnd_unlocksWithinAFrame() throws Exception {
+        RecordedGesture gesture = readBack(Arrays.asList(drag(1000, 8 * MS))).get(0);
+        int previousFrames = 0;
+        for (int refreshRate : REFRESH_RATES) {
+            long frameInterval = 1000000000L / refreshRate;
+            GestureReplayer.Result result = replay(gesture, refreshRate, 3 * MS);
+            String message = refreshRate + " Hz: " + result;
+
+            assertEquals(message, 1, result.unlocks);
+            // crossing is between two samples, the later one is delivered on the next vsync,
+            // event times are in millis
+            assertTrue(message, result.unlockLatencyNanos >= 0);
+            assertTrue(message, result.unlockLatencyNanos <= frameInterval + 8 * MS + MS);
+            // reset from the end takes the whole duration, it ends on the first frame after it
+            assertTrue(message, result.resetDurationNanos > RESET_DURATION_NANOS - MS);
+            assertTrue(message, result.resetDurationNanos < RESET_DURATION_NANOS + frameInterval);
+            // the reset runs a frame per vsync and moves the thumb on each of them,
+            // moves of the drag are invalidated as they are delivered
+            assertTrue(message, result.frames >= RESET_DURATION_NANOS / frameInterval);
+            assertTrue(message, result.frames > previousFrames);
+            assertTrue(message, result.invalidations > result.frames);
+            assertEquals(message, 0, result.endProgress);
+            assertEquals(message, UnlockSlideController.STATE_IDLE, result.endState);
+            previousFrames = result.frames;
+        }
+    }
+
+    @Test
+    public void fastRelease_unlocksOnFlingFrame() throws Exception {
+        UnlockSlideController controller = createController();
+        controller.setFlingEnabled(true);
+        controller.setFlingVelocity(600, 8000);
+        controller.setFlingDeceleration(10000);
+        RecordedGesture gesture = new RecordedGesture();
+        gesture.setUp(controller);
+        gesture.add(UnlockSlideController.ACTION_DOWN, 50, 50, 0);
+        for (int i = 1; i <= 5; i++) {
+            gesture.add(UnlockSlideController.ACTION_MOVE, 50 + 40 * i, 50, i * 8 * MS);
+        }
+        gesture.add(UnlockSlideController.ACTION_UP, 290, 50, 48 * MS);
+
+        for (int refreshRate : REFRESH_RATES) {
+            GestureReplayer.Result result = replay(gesture, refreshRate, 0);
+            String message = refreshRate + " Hz: " + result;
+            assertEquals(message, 1, result.unlocks);
+            // the fling reaches the end on a frame and unlocks on it
+            assertEquals(message, 0, result.unlockLatencyNanos);
+            assertTrue(message, result.frames > 0);
+            assertTrue(message, result.invalidations >= result.frames);
+            assertEquals(message, 0, result.endProgress);
+        }
+    }
+
+    @Test
+    public void corpus_keepsInvariants() throws Exception {
+        List<RecordedGesture> corpus = new ArrayList<>(readBack(randomGestures(300)));
+        corpus.addAll(readAssetCorpus());
+        Random random = new Random(7);
+        for (int g = 0; g < corpus.size(); g++) {
+            RecordedGesture gesture = corpus.get(g);
+            for (int refreshRate : REFRESH_RATES) {
+                long frameInterval = 1000000000L / refreshRate;
+                GestureReplayer.Result result = replay(gesture, refreshRate,
+                        (long) (random.nextDouble() * frameInterval));
+                String message = "gesture " + g + " at " + refreshRate + " Hz: " + result;
+
+                assertTrue(message, result.unlocks <= 1);
+                if (result.unlocks == 1) {
+                    assertTrue(message, result.unlockLatencyNanos >= 0);
+                    assertTrue(message, result.unlockLatencyNanos <= frameInterval + maxSampleInterval(gesture) + MS);
+                }
+                if (result.resetDurationNanos >= 0) {
+                    assertTrue(message, result.resetDurationNanos < RESET_DURATION_NANOS + frameInterval);
+                }
+                // every animation frame moves the thumb
+                assertTrue(message, result.invalidations >= result.frames);
+                assertEquals(message, 0, result.endProgress);
+                assertEquals(message, UnlockSlideController.STATE_IDLE, result.endState);
+            }
+        }
+    }
+
+    /**
+     * Replay gesture on the main thread
+     */
+    private static GestureReplayer.Result replay(final RecordedGesture gesture, final int refreshRate,
+                                                 final long vsyncPhaseNanos) {
+        final GestureReplayer.Result[] result = new GestureReplayer.Result[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                result[0] = GestureReplayer.replay(InstrumentationRegistry.getTargetContext(),
+                        gesture, refreshRate, vsyncPhaseNanos);
+            }
+        });
+        return result[0];
+    }
+
+    private static UnlockSlideController createController() {
+        SlideGeometry geometry = new SlideGeometry();
+        // thumb is 0..100, max progress is 900, progress to unlock is 850
+        geometry.update(1000, 100, 100, 100, 0, 150, 200, 0, 95);
+        UnlockSlideController controller = new UnlockSlideController(geometry);
+        controller.setResetDurationNanos(RESET_DURATION_NANOS);
+        return controller;
+    }
+
+    /**
+     * Drag from the thumb to the position at a constant speed, 20 samples, and release there
+     */
+    private static RecordedGesture drag(float toX, long sampleInterval) {
+        RecordedGesture gesture = new RecordedGesture();
+        gesture.setUp(createController());
+        long start = 1000 * MS;
+        gesture.add(UnlockSlideController.ACTION_DOWN, 50, 50, start);
+        for (int i = 1; i <= 20; i++) {
+            gesture.add(UnlockSlideController.ACTION_MOVE, 50 + (toX - 50) * i / 20, 50, start + i * sampleInterval);
+        }
+        gesture.add(UnlockSlideController.ACTION_UP, toX, 50, start + 21 * sampleInterval);
+        return gesture;
+    }
+
+    private static List<RecordedGesture> randomGestures(int count) {
+        Random random = new Random(42);
+        List<RecordedGesture> gestures = new ArrayList<>();
+        for (int g = 0; g < count; g++) {
+            UnlockSlideController controller = createController();
+            controller.setFlingEnabled(random.nextBoolean());
+            controller.setFlingVelocity(600, 8000);
+            controller.setFlingDeceleration(10000);
+            controller.setTouchSlop(random.nextBoolean() ? 16 : 0);
+            RecordedGesture gesture = new RecordedGesture();
+            gesture.setUp(controller);
+            long time = random.nextInt(1000) * MS;
+            float x = random.nextFloat() * 120;
+            float y = random.nextFloat() * 100;
+            gesture.add(UnlockSlideController.ACTION_DOWN, x, y, time);
+            // touchscreens report at 60 to 240 Hz
+            long sampleInterval = (4 + random.nextInt(13)) * MS;
+            int moves = random.nextInt(60);
+            for (int i = 0; i < moves; i++) {
+                time += sampleInterval;
+                x += random.nextFloat() * 80 - 20;
+                gesture.add(UnlockSlideController.ACTION_MOVE, x, y + random.nextFloat() * 40 - 20, time);
+            }
+            time += sampleInterval;
+            gesture.add(random.nextInt(5) == 0
+                    ? UnlockSlideController.ACTION_CANCEL
+                    : UnlockSlideController.ACTION_UP, x, y, time);
+            gestures.add(gesture);
+        }
+        return gestures;
+    }
+
+    private static long maxSampleInterval(RecordedGesture gesture) {
+        long max = 0;
+        for (int i = 1; i < gesture.size(); i++) {
+            max = Math.max(max, gesture.getTimeNanos(i) - gesture.getTimeNanos(i - 1));
+        }
+        return max;
+    }
+
+    private static List<RecordedGesture> readBack(List<RecordedGesture> gestures) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecordedGesture.write(gestures, out);
+        return RecordedGesture.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * Read recordings from the gestures assets directory of the test, if there is one
+     */
+    private static List<RecordedGesture> readAssetCorpus() throws IOException {
+        List<RecordedGesture> gestures = new ArrayList<>();
+        AssetManager assets = InstrumentationRegistry.getContext().getAssets();
+        for (String name : assets.list("gestures")) {
+            InputStream in = assets.open("gestures/" + name);
+            try {
+                gestures.addAll(RecordedGesture.read(in));
+            } catch (IOException e) {
+                fail(name + ": " + e.getMessage());
+            } finally {
+                in.close();
+            }
+        }
+        return gestures;
+    }
+}
@@ -0,0 +1,201 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+/**
+ * Replays {@link RecordedGesture} against {@link UnlockSlideView} under a simulated Choreographer.
+ * <p>
+ * The view is laid out with the recorded slide and settings and its {@link FrameScheduler} is replaced
+ * by one dispatching frames on simulated vsyncs. Input is delivered the way the platform does it:
+ * move samples are batched into one event consumed on the next vsync before the frame callbacks,
+ * other actions are delivered at once after the pending moves. Frames and invalidations are reported
+ * by the view itself through {@link UnlockSlideView.TestHook}. It must be used on the main thread.
+ */
+final class GestureReplayer implements UnlockSlideView.TestHook {
+
+    /**
+     * Measurements of one replayed gesture
+     */
+    static final class Result {
+        /**
+         * Frames dispatched to the view by its frame scheduler
+         */
+        int frames;
+        /**
+         * Invalidations of the thumb area requested by the view
+         */
+        int invalidations;
+        int unlocks;
+        /**
+         * Time from the progress to unlock being reached to onUnlock, -1 if it isn't unlocked
+         */
+        long unlockLatencyNanos = -1;
+        /**
+         * Time from the first to the last frame of the reset, -1 if there is no reset
+         */
+        long resetDurationNanos = -1;
+        int endProgress;
+        int endState;
+
+        @Override
+        public String toString() {
+            return "frames=" + frames
+                    + " invalidations=" + invalidations
+                    + " unlocks=" + unlocks
+                    + " unlockLatencyMs=" + (unlockLatencyNanos / 1e6)
+                    + " resetDurationMs=" + (resetDurationNanos / 1e6);
+        }
+    }
+
+    /**
+     * Offset of replayed times, recorded times start from 0 and event times are in millis
+     */
+    private static final long TIME_BASE_NANOS = 1000000000L;
+
+    private final RecordedGesture mGesture;
+    private final UnlockSlideView mView;
+    private final ReplayFrameScheduler mFrameScheduler;
+    private final Result mResult = new Result();
+    private long mNowNanos;
+    private long mDownTimeMillis;
+
+    private GestureReplayer(Context context, RecordedGesture gesture) {
+        mGesture = gesture;
+        mView = new UnlockSlideView(context);
+        // the view releases the parent's touch interception while dragging
+        new FrameLayout(context).addView(mView, gesture.getWidth(), gesture.getHeight());
+        mView.edit()
+                .setThumbPadding(gesture.getThumbPadding())
+                .setThumbWidth(gesture.getThumbWidth())
+                .setThumbHeight(gesture.getThumbHeight())
+                .apply();
+        mView.setLimitProgressForSuccess(gesture.getLimitProgressForSuccess());
+        mView.measure(View.MeasureSpec.makeMeasureSpec(gesture.getWidth(), View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(gesture.getHeight(), View.MeasureSpec.EXACTLY));
+        mView.layout(0, 0, gesture.getWidth(), gesture.getHeight());
+        gesture.applySettings(mView.getController());
+
+        mFrameScheduler = new ReplayFrameScheduler(mView.getFrameCallback());
+        mFrameScheduler.setActive(true);
+        mView.setFrameScheduler(mFrameScheduler);
+        mView.setTestHook(this);
+    }
+
+    /**
+     * Replay gesture until its animations end
+     *
+     * @param refreshRateHz   simulated refresh rate
+     * @param vsyncPhaseNanos time of any vsync, it shifts vsyncs relative to the samples
+     */
+    static Result replay(Context context, RecordedGesture gesture, int refreshRateHz, long vsyncPhaseNanos) {
+        GestureReplayer replayer = new GestureReplayer(context, gesture);
+        replayer.run(1000000000L / refreshRateHz, vsyncPhaseNanos);
+        return replayer.mResult;
+    }
+
+    @Override
+    public void onFrame(long frameTimeNanos) {
+        mResult.frames++;
+    }
+
+    @Override
+    public void onInvalidateThumbArea() {
+        mResult.invalidations++;
+    }
+
+    @Override
+    public void onUnlock(long crossingTimeNanos) {
+        mResult.unlocks++;
+        mResult.unlockLatencyNanos = mNowNanos - crossingTimeNanos;
+    }
+
+    @Override
+    public void onResetFinished(long resetDurationNanos) {
+        mResult.resetDurationNanos = resetDurationNanos;
+    }
+
+    private void run(long frameIntervalNanos, long vsyncPhaseNanos) {
+        int size = mGesture.size();
+        if (size == 0) {
+            return;
+        }
+        long start = mGesture.getTimeNanos(0);
+        long offset = ((start - vsyncPhaseNanos) % frameIntervalNanos + frameIntervalNanos) % frameIntervalNanos;
+        long vsync = start - offset + frameIntervalNanos;
+        int next = 0;
+        int batchStart = 0;
+        while (next < size || mFrameScheduler.isFrameScheduled()) {
+            while (next < size && mGesture.getTimeNanos(next) <= vsync) {
+                if (mGesture.getAction(next) != UnlockSlideController.ACTION_MOVE) {
+                    deliverMoves(batchStart, next);
+                    deliver(next);
+                    batchStart = next + 1;
+                }
+                next++;
+            }
+            // input and animation of the frame
+            deliverMoves(batchStart, next);
+            batchStart = next;
+            mNowNanos = TIME_BASE_NANOS + vsync;
+            mFrameScheduler.dispatchFrame(mNowNanos);
+            vsync += frameIntervalNanos;
+        }
+        mResult.endProgress = mView.getController().getDragProgress();
+        mResult.endState = mView.getController().getState();
+    }
+
+    /**
+     * Deliver batched move samples as one event, the last sample is the current one
+     */
+    private void deliverMoves(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        MotionEvent event = MotionEvent.obtain(mDownTimeMillis, getEventTimeMillis(from),
+                MotionEvent.ACTION_MOVE, mGesture.getX(from), mGesture.getY(from), 0);
+        for (int i = from + 1; i < to; i++) {
+            event.addBatch(getEventTimeMillis(i), mGesture.getX(i), mGesture.getY(i), 1, 1, 0);
+        }
+        dispatch(event);
+    }
+
+    private void deliver(int index) {
+        long eventTimeMillis = getEventTimeMillis(index);
+        if (mGesture.getAction(index) == UnlockSlideController.ACTION_DOWN)
+            mDownTimeMillis = eventTimeMillis;
+        dispatch(MotionEvent.obtain(mDownTimeMillis, eventTimeMillis, mGesture.getAction(index),
+                mGesture.getX(index), mGesture.getY(index), 0));
+    }
+
+    private void dispatch(MotionEvent event) {
+        // the view takes event times in millis
+        mNowNanos = event.getEventTime() * 1000000L;
+        mView.onTouchEvent(event);
+        event.recycle();
+    }
+
+    private long getEventTimeMillis(int index) {
+        return (TIME_BASE_NANOS + mGesture.getTimeNanos(index)) / 1000000L;
+    }
+
+    /**
+     * Frame scheduler whose frames are dispatched by the replayer on simulated vsyncs
+     */
+    private static final class ReplayFrameScheduler extends FrameScheduler {
+
+        ReplayFrameScheduler(Callback callback) {
+            super(callback);
+        }
+
+        @Override
+        void onScheduleFrame() {
+        }
+
+        @Override
+        void onCancelFrame() {
+        }
+    }
+}
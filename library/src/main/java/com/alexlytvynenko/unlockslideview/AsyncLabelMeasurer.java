@@ -0,0 +1,79 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.text.TextPaint;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Measures labels on a background thread and delivers them on the main thread.
+ * <p>
+ * Labels are measured through {@link LabelCache}, so measuring also warms the text layout cache
+ * of the platform and the first frame drawing the label doesn't shape it again.
+ *
+ * @author Alex Lytvynenko
+ */
+final class AsyncLabelMeasurer {
+
+    /**
+     * Callback invoked on the main thread when the label is measured
+     */
+    interface Callback {
+        /**
+         * @param text          measured text
+         * @param textPaint     paint the text was measured with
+         * @param measuredLabel measurement
+         */
+        void onMeasured(String text, TextPaint textPaint, MeasuredLabel measuredLabel);
+    }
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static ExecutorService sExecutor;
+
+    private AsyncLabelMeasurer() {
+    }
+
+    /**
+     * Measure text on the background thread. The paint is used on that thread, so it must be
+     * a copy which isn't modified afterwards.
+     */
+    static void measure(final String text, final TextPaint textPaint, final Callback callback) {
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final MeasuredLabel measuredLabel = LabelCache.getInstance().get(text, textPaint);
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onMeasured(text, textPaint, measuredLabel);
+                    }
+                });
+            }
+        });
+    }
+
+    private static synchronized Executor getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }
+                    }, "UnlockSlideView-label");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return sExecutor;
+    }
+}
@@ -0,0 +1,81 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.os.Build;
+import android.view.View;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Votes for the display refresh rate of {@link UnlockSlideView} on devices with variable refresh rates.
+ * <p>
+ * The highest rate is requested while the thumb moves, so dragging and the reset are smooth,
+ * and the vote is released when the view is idle, so it doesn't keep the display at a high rate.
+ * {@code View.setRequestedFrameRate} is available since API 35 and called by reflection,
+ * it's a no-op on older API levels.
+ *
+ * @author Alex Lytvynenko
+ */
+final class FrameRateHint {
+
+    private static final int VANILLA_ICE_CREAM = 35;
+
+    /**
+     * Values of {@code View.REQUESTED_FRAME_RATE_CATEGORY_DEFAULT} and {@code REQUESTED_FRAME_RATE_CATEGORY_HIGH},
+     * boxed once together with the reflective call arguments, so a call doesn't allocate
+     */
+    private static final Float CATEGORY_DEFAULT = Float.NaN;
+    private static final Float CATEGORY_HIGH = -4f;
+    private static final Object[] ARGS_DEFAULT = {CATEGORY_DEFAULT};
+    private static final Object[] ARGS_HIGH = {CATEGORY_HIGH};
+
+    private static Method sSetRequestedFrameRate;
+    private static boolean sIsResolved;
+
+    private final View mView;
+    private boolean mIsHigh;
+
+    FrameRateHint(View view) {
+        mView = view;
+    }
+
+    /**
+     * Request the highest frame rate or release the request, repeated calls with the same value do nothing
+     */
+    void setHigh(boolean isHigh) {
+        if (mIsHigh == isHigh) {
+            return;
+        }
+        mIsHigh = isHigh;
+        Method setRequestedFrameRate = getSetRequestedFrameRate();
+        if (setRequestedFrameRate == null) {
+            return;
+        }
+        try {
+            setRequestedFrameRate.invoke(mView, isHigh ? ARGS_HIGH : ARGS_DEFAULT);
+        } catch (IllegalAccessException e) {
+            // the hint is optional, don't try it again
+            sSetRequestedFrameRate = null;
+        } catch (InvocationTargetException e) {
+            sSetRequestedFrameRate = null;
+        }
+    }
+
+    boolean isHigh() {
+        return mIsHigh;
+    }
+
+    private static Method getSetRequestedFrameRate() {
+        if (!sIsResolved) {
+            sIsResolved = true;
+            if (Build.VERSION.SDK_INT >= VANILLA_ICE_CREAM) {
+                try {
+                    sSetRequestedFrameRate = View.class.getMethod("setRequestedFrameRate", float.class);
+                } catch (NoSuchMethodException e) {
+                    sSetRequestedFrameRate = null;
+                }
+            }
+        }
+        return sSetRequestedFrameRate;
+    }
+}
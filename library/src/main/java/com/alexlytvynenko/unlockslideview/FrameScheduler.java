@@ -0,0 +1,147 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.v4.view.ViewCompat;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.animation.AnimationUtils;
+
+/**
+ * Schedules at most one frame callback per vsync for {@link UnlockSlideView} animations.
+ * <p>
+ * Uses {@link Choreographer} frame timestamps where available and falls back to
+ * {@link ViewCompat#postOnAnimation(View, Runnable)} with the animation clock on older API levels.
+ * Frames are requested only while the scheduler is active, i.e. the view is attached and visible.
+ *
+ * @author Alex Lytvynenko
+ */
+abstract class FrameScheduler {
+
+    /**
+     * Callback invoked once for each scheduled frame
+     */
+    interface Callback {
+        /**
+         * @param frameTimeNanos time the frame started rendering, in {@link System#nanoTime()} base
+         */
+        void doFrame(long frameTimeNanos);
+    }
+
+    private final Callback mCallback;
+    private boolean mIsFrameScheduled;
+    private boolean mIsActive;
+
+    FrameScheduler(Callback callback) {
+        mCallback = callback;
+    }
+
+    /**
+     * Create the scheduler suitable for the current API level
+     */
+    static FrameScheduler create(View view, Callback callback) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            return new ChoreographerFrameScheduler(callback);
+        }
+        return new AnimationFrameScheduler(view, callback);
+    }
+
+    /**
+     * Set whether frames can be requested, the scheduled frame is cancelled when it becomes inactive
+     */
+    final void setActive(boolean isActive) {
+        mIsActive = isActive;
+        if (!isActive) {
+            cancelFrame();
+        }
+    }
+
+    final boolean isActive() {
+        return mIsActive;
+    }
+
+    /**
+     * Request the callback for the next frame. Does nothing if a frame is already scheduled
+     * or the scheduler isn't active.
+     */
+    final void scheduleFrame() {
+        if (mIsActive && !mIsFrameScheduled) {
+            mIsFrameScheduled = true;
+            onScheduleFrame();
+        }
+    }
+
+    /**
+     * Cancel the scheduled frame if any
+     */
+    final void cancelFrame() {
+        if (mIsFrameScheduled) {
+            mIsFrameScheduled = false;
+            onCancelFrame();
+        }
+    }
+
+    final boolean isFrameScheduled() {
+        return mIsFrameScheduled;
+    }
+
+    final void dispatchFrame(long frameTimeNanos) {
+        if (mIsFrameScheduled) {
+            mIsFrameScheduled = false;
+            mCallback.doFrame(frameTimeNanos);
+        }
+    }
+
+    abstract void onScheduleFrame();
+
+    abstract void onCancelFrame();
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class ChoreographerFrameScheduler extends FrameScheduler
+            implements Choreographer.FrameCallback {
+
+        ChoreographerFrameScheduler(Callback callback) {
+            super(callback);
+        }
+
+        @Override
+        void onScheduleFrame() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        void onCancelFrame() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            dispatchFrame(frameTimeNanos);
+        }
+    }
+
+    private static class AnimationFrameScheduler extends FrameScheduler implements Runnable {
+
+        private final View mView;
+
+        AnimationFrameScheduler(View view, Callback callback) {
+            super(callback);
+            mView = view;
+        }
+
+        @Override
+        void onScheduleFrame() {
+            ViewCompat.postOnAnimation(mView, this);
+        }
+
+        @Override
+        void onCancelFrame() {
+            mView.removeCallbacks(this);
+        }
+
+        @Override
+        public void run() {
+            dispatchFrame(AnimationUtils.currentAnimationTimeMillis() * 1000000L);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.view.MotionEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * Records touch events of {@link UnlockSlideView} to reproduce reported gestures later.
+ * <p>
+ * The last gestures are kept in memory with all batched samples, the layout of the slide
+ * and its settings. They are written in a compact binary format which the library tests replay
+ * against the view at different refresh rates. Set it by {@link UnlockSlideView#setGestureRecorder(GestureRecorder)}.
+ * It must be used on the main thread.
+ *
+ * @author Alex Lytvynenko
+ */
+public final class GestureRecorder {
+
+    public static final int DEFAULT_MAX_GESTURES = 100;
+
+    private final int mMaxGestures;
+    private final ArrayDeque<RecordedGesture> mGestures = new ArrayDeque<>();
+    private RecordedGesture mGesture;
+
+    public GestureRecorder() {
+        this(DEFAULT_MAX_GESTURES);
+    }
+
+    /**
+     * @param maxGestures number of the last gestures to keep, the oldest ones are dropped
+     */
+    public GestureRecorder(int maxGestures) {
+        if (maxGestures <= 0) {
+            throw new IllegalArgumentException("maxGestures <= 0");
+        }
+        mMaxGestures = maxGestures;
+    }
+
+    /**
+     * Get number of recorded gestures, including the one in progress
+     */
+    public int getGestureCount() {
+        return mGestures.size();
+    }
+
+    /**
+     * Remove all recorded gestures
+     */
+    public void clear() {
+        mGestures.clear();
+        mGesture = null;
+    }
+
+    /**
+     * Write recorded gestures, the stream isn't closed
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        RecordedGesture.write(new ArrayList<>(mGestures), outputStream);
+    }
+
+    /**
+     * Record touch event, a gesture starts on ACTION_DOWN
+     *
+     * @param controller controller of the view, its layout and settings are recorded with the gesture
+     */
+    void record(MotionEvent event, UnlockSlideController controller) {
+        int action = event.getAction();
+        if (action == MotionEvent.ACTION_DOWN) {
+            if (mGestures.size() == mMaxGestures)
+                mGestures.removeFirst();
+            mGesture = new RecordedGesture();
+            mGesture.setUp(controller);
+            mGestures.addLast(mGesture);
+        }
+        if (mGesture == null) {
+            return;
+        }
+        for (int i = 0, size = event.getHistorySize(); i < size; i++) {
+            mGesture.add(UnlockSlideController.ACTION_MOVE, event.getHistoricalX(i), event.getHistoricalY(i),
+                    event.getHistoricalEventTime(i) * 1000000L);
+        }
+        switch (action) {
+            case MotionEvent.ACTION_DOWN:
+                mGesture.add(UnlockSlideController.ACTION_DOWN, event.getX(), event.getY(),
+                        event.getEventTime() * 1000000L);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                mGesture.add(UnlockSlideController.ACTION_MOVE, event.getX(), event.getY(),
+                        event.getEventTime() * 1000000L);
+                break;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                mGesture.add(action == MotionEvent.ACTION_UP
+                                ? UnlockSlideController.ACTION_UP
+                                : UnlockSlideController.ACTION_CANCEL,
+                        event.getX(), event.getY(), event.getEventTime() * 1000000L);
+                mGesture = null;
+                break;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.annotation.TargetApi;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.text.TextPaint;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Process-wide LRU cache of label measurements shared by all {@link UnlockSlideView} instances.
+ * <p>
+ * Entries are keyed by text, text size, typeface and locale, so views showing the same
+ * localized string in the same style measure it only once. The cache is thread-safe,
+ * labels can be measured on a background thread.
+ *
+ * @author Alex Lytvynenko
+ */
+public final class LabelCache {
+
+    /**
+     * Default maximum number of cached labels
+     */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private static final LabelCache sInstance = new LabelCache();
+
+    private final LinkedHashMap<Key, MeasuredLabel> mLabels = new LinkedHashMap<Key, MeasuredLabel>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, MeasuredLabel> eldest) {
+            return size() > mMaxSize;
+        }
+    };
+    private int mMaxSize = DEFAULT_MAX_SIZE;
+    private long mHitCount;
+    private long mMissCount;
+
+    private LabelCache() {
+    }
+
+    /**
+     * Get the cache shared by all views
+     */
+    public static LabelCache getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Set maximum number of cached labels, the least recently used labels are evicted above it
+     *
+     * @param maxSize maximum size, 0 disables caching
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("Max size can't be negative");
+        mMaxSize = maxSize;
+        trimToSize();
+    }
+
+    /**
+     * Get maximum number of cached labels
+     *
+     * @return max size
+     */
+    public synchronized int getMaxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * Get number of cached labels
+     *
+     * @return size
+     */
+    public synchronized int size() {
+        return mLabels.size();
+    }
+
+    /**
+     * Get number of times a label was found in the cache
+     *
+     * @return hit count
+     */
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * Get number of times a label had to be measured
+     *
+     * @return miss count
+     */
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * Remove all cached labels, counters are kept
+     */
+    public synchronized void clear() {
+        mLabels.clear();
+    }
+
+    /**
+     * Get measurement of the text with the paint, measuring it on a miss.
+     * The paint must not be modified while measuring.
+     */
+    MeasuredLabel get(String text, TextPaint textPaint) {
+        Key key = new Key(text, textPaint.getTextSize(), textPaint.getTypeface(), getTextLocale(textPaint));
+        synchronized (this) {
+            MeasuredLabel measuredLabel = mLabels.get(key);
+            if (measuredLabel != null) {
+                mHitCount++;
+                return measuredLabel;
+            }
+            mMissCount++;
+        }
+        // measure outside of the lock, a concurrent miss for the same key only measures twice
+        MeasuredLabel measuredLabel = MeasuredLabel.measure(text, textPaint);
+        synchronized (this) {
+            if (mMaxSize > 0) {
+                mLabels.put(key, measuredLabel);
+            }
+        }
+        return measuredLabel;
+    }
+
+    /**
+     * Whether labels measured with one paint can be drawn with the other, the paints have the same
+     * fields as the key of a measured label
+     */
+    static boolean isSameStyle(TextPaint textPaint, TextPaint other) {
+        Typeface typeface = textPaint.getTypeface();
+        Locale locale = getTextLocale(textPaint);
+        return Float.compare(textPaint.getTextSize(), other.getTextSize()) == 0
+                && (typeface != null ? typeface.equals(other.getTypeface()) : other.getTypeface() == null)
+                && (locale != null ? locale.equals(getTextLocale(other)) : getTextLocale(other) == null);
+    }
+
+    private void trimToSize() {
+        while (mLabels.size() > mMaxSize) {
+            Key eldest = mLabels.keySet().iterator().next();
+            mLabels.remove(eldest);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+    private static Locale getTextLocale(TextPaint textPaint) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return textPaint.getTextLocale();
+        }
+        return Locale.getDefault();
+    }
+
+    /**
+     * Key of a measured label
+     */
+    private static final class Key {
+
+        private final String mText;
+        private final float mTextSize;
+        private final Typeface mTypeface;
+        private final Locale mLocale;
+
+        Key(String text, float textSize, Typeface typeface, Locale locale) {
+            mText = text;
+            mTextSize = textSize;
+            mTypeface = typeface;
+            mLocale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Float.compare(key.mTextSize, mTextSize) == 0
+                    && mText.equals(key.mText)
+                    && (mTypeface != null ? mTypeface.equals(key.mTypeface) : key.mTypeface == null)
+                    && (mLocale != null ? mLocale.equals(key.mLocale) : key.mLocale == null);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mText.hashCode();
+            result = 31 * result + Float.floatToIntBits(mTextSize);
+            result = 31 * result + (mTypeface != null ? mTypeface.hashCode() : 0);
+            result = 31 * result + (mLocale != null ? mLocale.hashCode() : 0);
+            return result;
+        }
+    }
+}
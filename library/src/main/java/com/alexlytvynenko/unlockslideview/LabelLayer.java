@@ -0,0 +1,109 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.text.TextPaint;
+
+/**
+ * Label of {@link UnlockSlideView} pre-rendered into an alpha mask bitmap.
+ * <p>
+ * The mask is drawn once when the label changes. It's rendered opaque, so it holds only the coverage
+ * of the glyphs, and every frame draws it with the text paint, so its color and alpha are taken
+ * from the paint once and don't require rendering again.
+ *
+ * @author Alex Lytvynenko
+ */
+final class LabelLayer {
+
+    private final Canvas mCanvas = new Canvas();
+    private final Rect mBounds = new Rect();
+    private final TextPaint mMaskPaint = new TextPaint();
+    private Bitmap mBitmap;
+    private boolean mIsValid;
+    /**
+     * Offsets of the bitmap relative to the text origin and baseline
+     */
+    private int mLeft;
+    private int mTop;
+
+    /**
+     * Render label into the mask, the bitmap is reused if it's big enough
+     *
+     * @param textBounds bounds of the whole label measured by the paint
+     */
+    void build(LabelText labelText, TextPaint textPaint, Rect textBounds) {
+        mLeft = Math.min(0, textBounds.left);
+        mTop = (int) Math.floor(textPaint.ascent());
+        int right = Math.max((int) Math.ceil(labelText.getWidth()), textBounds.right);
+        int bottom = (int) Math.ceil(textPaint.descent());
+        int width = right - mLeft;
+        int height = bottom - mTop;
+
+        if (labelText.length() == 0 || width <= 0 || height <= 0) {
+            release();
+        } else {
+            if (mBitmap == null || mBitmap.getWidth() < width || mBitmap.getHeight() < height) {
+                release();
+                mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+                mCanvas.setBitmap(mBitmap);
+            } else {
+                mBitmap.eraseColor(Color.TRANSPARENT);
+            }
+            // the alpha of the color is applied when the mask is drawn, don't apply it twice
+            mMaskPaint.set(textPaint);
+            mMaskPaint.setAlpha(255);
+            mCanvas.drawText(labelText.getChars(), 0, labelText.length(), -mLeft, -mTop, mMaskPaint);
+            mBounds.set(0, 0, width, height);
+        }
+        mIsValid = true;
+    }
+
+    /**
+     * Draw the part of the label which is right of the clip position
+     *
+     * @param x        text origin
+     * @param baseline text baseline
+     * @param clipLeft left edge of the visible part
+     * @param paint    paint defining color of the label
+     */
+    void draw(Canvas canvas, float x, float baseline, float clipLeft, Paint paint) {
+        if (mBitmap == null) {
+            return;
+        }
+        float left = x + mLeft;
+        float top = baseline + mTop;
+        float right = left + mBounds.width();
+        if (clipLeft >= right) {
+            return;
+        }
+        int saveCount = canvas.save();
+        canvas.clipRect(Math.max(left, clipLeft), top, right, top + mBounds.height());
+        canvas.drawBitmap(mBitmap, left, top, paint);
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * Mark layer as outdated, it's rendered again on the next build
+     */
+    void invalidate() {
+        mIsValid = false;
+    }
+
+    boolean isValid() {
+        return mIsValid;
+    }
+
+    /**
+     * Free the bitmap, layer has to be built again before drawing
+     */
+    void release() {
+        mIsValid = false;
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.alexlytvynenko.unlockslideview;
+
+/**
+ * Pre-measured characters of the {@link UnlockSlideView} label.
+ * <p>
+ * Characters and per-character advances are copied into reusable buffers once, whenever the
+ * text or its style changes, and accumulated into a table of prefix widths. The visible part
+ * of the label is found on every frame by a binary search in that table, without allocating
+ * and without measuring text. The visible part starts at a grapheme cluster, so surrogate pairs,
+ * combining marks and emoji sequences aren't split after the ellipsis.
+ *
+ * @author Alex Lytvynenko
+ */
+final class LabelText {
+
+    private char[] mChars = new char[0];
+    private float[] mAdvances = new float[0];
+    /**
+     * Whether the character at index i starts a grapheme cluster
+     */
+    private boolean[] mClusterStarts = new boolean[0];
+    /**
+     * Width of the first i characters at index i, it has {@link #mLength} + 1 entries
+     */
+    private float[] mPrefixWidths = new float[1];
+    private int mLength;
+    private float mWidth;
+    private float mEllipsisWidth;
+
+    /**
+     * Copy text into the character buffer, growing the buffers only if needed.
+     * Advances must be filled by {@link #getAdvances()} and committed by {@link #onMeasured(float)}.
+     */
+    void setText(String text) {
+        mLength = text.length();
+        if (mChars.length < mLength) {
+            mChars = new char[mLength];
+            mAdvances = new float[mLength];
+            mClusterStarts = new boolean[mLength];
+            mPrefixWidths = new float[mLength + 1];
+        }
+        text.getChars(0, mLength, mChars, 0);
+        findClusterStarts();
+    }
+
+    /**
+     * Recalculate the prefix widths once {@link #getAdvances()} has been filled.
+     *
+     * @param ellipsisWidth width of the ellipsis reserved when the label is truncated
+     */
+    void onMeasured(float ellipsisWidth) {
+        mEllipsisWidth = ellipsisWidth;
+        float width = 0;
+        for (int i = 0; i < mLength; i++) {
+            mPrefixWidths[i] = width;
+            width += mAdvances[i];
+        }
+        mPrefixWidths[mLength] = width;
+        mWidth = width;
+    }
+
+    /**
+     * Get the first character which is still visible when the label is truncated at start
+     * to fit the available width.
+     *
+     * @param availableWidth width available for the label
+     * @return index of the first visible character, equal to {@link #length()} if nothing fits
+     */
+    int getVisibleStart(float availableWidth) {
+        if (mWidth <= availableWidth) {
+            return 0;
+        }
+        // reserve the place of an ellipsis the same way TextUtils.ellipsize does,
+        // the visible suffix starts at the first prefix which leaves no more than the limit
+        float hiddenWidth = mWidth - (availableWidth - mEllipsisWidth);
+        int low = 0;
+        int high = mLength;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (mPrefixWidths[middle] < hiddenWidth) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        // don't show a part of a cluster, e.g. a low surrogate or a detached combining mark
+        while (low < mLength && !mClusterStarts[low]) {
+            low++;
+        }
+        return low;
+    }
+
+    /**
+     * Mark starts of grapheme clusters: a code point extends the previous cluster if it's a combining mark,
+     * a variation selector, an emoji modifier or tag, a zero width joiner or follows one,
+     * or the second regional indicator of a flag.
+     */
+    private void findClusterStarts() {
+        boolean isJoined = false;
+        int regionalIndicators = 0;
+        int i = 0;
+        while (i < mLength) {
+            int codePoint = Character.codePointAt(mChars, i, mLength);
+            int charCount = Character.charCount(codePoint);
+            boolean isRegionalIndicator = codePoint >= 0x1F1E6 && codePoint <= 0x1F1FF;
+            mClusterStarts[i] = i == 0 || !(isJoined || isExtending(codePoint)
+                    || isRegionalIndicator && regionalIndicators % 2 == 1);
+            for (int j = 1; j < charCount; j++) {
+                mClusterStarts[i + j] = false;
+            }
+            regionalIndicators = isRegionalIndicator ? regionalIndicators + 1 : 0;
+            isJoined = codePoint == 0x200D;
+            i += charCount;
+        }
+    }
+
+    private static boolean isExtending(int codePoint) {
+        switch (Character.getType(codePoint)) {
+            case Character.NON_SPACING_MARK:
+            case Character.ENCLOSING_MARK:
+            case Character.COMBINING_SPACING_MARK:
+                return true;
+        }
+        return codePoint == 0x200D
+                || codePoint >= 0xFE00 && codePoint <= 0xFE0F
+                || codePoint >= 0x1F3FB && codePoint <= 0x1F3FF
+                || codePoint >= 0xE0020 && codePoint <= 0xE007F;
+    }
+
+    /**
+     * Get width of the label from the specified character to the end
+     */
+    float getWidth(int start) {
+        return mWidth - mPrefixWidths[start];
+    }
+
+    /**
+     * Get width of the whole label
+     */
+    float getWidth() {
+        return mWidth;
+    }
+
+    char[] getChars() {
+        return mChars;
+    }
+
+    float[] getAdvances() {
+        return mAdvances;
+    }
+
+    int length() {
+        return mLength;
+    }
+}
@@ -0,0 +1,67 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.graphics.Rect;
+import android.text.TextPaint;
+
+/**
+ * Immutable measurement of a label for a text style, shared by {@link UnlockSlideView} instances
+ * through {@link LabelCache}.
+ *
+ * @author Alex Lytvynenko
+ */
+final class MeasuredLabel {
+
+    private static final String ELLIPSIS = "\u2026";
+
+    private final String mText;
+    private final float[] mAdvances;
+    private final float mEllipsisWidth;
+    private final Rect mBounds = new Rect();
+    private final float mAscent;
+    private final float mDescent;
+
+    private MeasuredLabel(String text, TextPaint textPaint) {
+        mText = text;
+        mAdvances = new float[text.length()];
+        textPaint.getTextWidths(text, 0, text.length(), mAdvances);
+        mEllipsisWidth = textPaint.measureText(ELLIPSIS);
+        textPaint.getTextBounds(text, 0, text.length(), mBounds);
+        mAscent = textPaint.ascent();
+        mDescent = textPaint.descent();
+    }
+
+    /**
+     * Measure text with the paint
+     */
+    static MeasuredLabel measure(String text, TextPaint textPaint) {
+        return new MeasuredLabel(text, textPaint);
+    }
+
+    /**
+     * Copy measurement into the label of a view
+     */
+    void copyTo(LabelText labelText) {
+        labelText.setText(mText);
+        System.arraycopy(mAdvances, 0, labelText.getAdvances(), 0, mAdvances.length);
+        labelText.onMeasured(mEllipsisWidth);
+    }
+
+    String getText() {
+        return mText;
+    }
+
+    /**
+     * Get bounds of the whole text relative to its origin
+     */
+    void getBounds(Rect bounds) {
+        bounds.set(mBounds);
+    }
+
+    float getAscent() {
+        return mAscent;
+    }
+
+    float getDescent() {
+        return mDescent;
+    }
+}
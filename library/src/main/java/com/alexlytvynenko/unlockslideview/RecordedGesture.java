@@ -0,0 +1,239 @@
+package com.alexlytvynenko.unlockslideview;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Touch samples of one gesture on {@link UnlockSlideView} with the slide layout and settings
+ * it was made with, so it can be replayed against a view or an {@link UnlockSlideController} with the same setup.
+ * <p>
+ * Batched samples of a {@code MotionEvent} are flattened into separate move samples, replaying
+ * batches them again for the simulated refresh rate. Gestures are stored in a compact binary format:
+ * <pre>
+ * file:    magic "USVG", version byte, gestures till the end of the stream
+ * gesture: width, height, thumb width, thumb height, thumb padding (int),
+ *          progress to unlock in percents (byte), reset duration in ns (long),
+ *          fling enabled (boolean), min and max fling velocity, fling deceleration (float),
+ *          touch slop, sample count (int), samples
+ * sample:  action (byte), x, y (float), time since the previous sample in µs (int)
+ * </pre>
+ *
+ * @author Alex Lytvynenko
+ */
+final class RecordedGesture {
+
+    private static final int MAGIC = 0x55535647;
+    private static final int VERSION = 1;
+
+    private int mWidth;
+    private int mHeight;
+    private int mThumbWidth;
+    private int mThumbHeight;
+    private int mThumbPadding;
+    private int mLimitProgressForSuccess;
+    private long mResetDurationNanos;
+    private boolean mIsFlingEnabled;
+    private float mMinFlingVelocity;
+    private float mMaxFlingVelocity;
+    private float mFlingDeceleration;
+    private int mTouchSlop;
+
+    private int mSize;
+    private byte[] mActions = new byte[16];
+    private float[] mX = new float[16];
+    private float[] mY = new float[16];
+    private long[] mTimes = new long[16];
+
+    /**
+     * Take layout and settings of the slide from the controller
+     */
+    void setUp(UnlockSlideController controller) {
+        SlideGeometry geometry = controller.getGeometry();
+        mWidth = geometry.getWidth();
+        mHeight = geometry.getHeight();
+        mThumbPadding = geometry.getThumbLeft(0);
+        mThumbWidth = geometry.getThumbRight(0) - mThumbPadding;
+        mThumbHeight = geometry.getThumbBottom() - geometry.getThumbTop();
+        mLimitProgressForSuccess = geometry.getLimitProgressForSuccess();
+        mResetDurationNanos = controller.getResetDurationNanos();
+        mIsFlingEnabled = controller.isFlingEnabled();
+        mMinFlingVelocity = controller.getMinFlingVelocity();
+        mMaxFlingVelocity = controller.getMaxFlingVelocity();
+        mFlingDeceleration = controller.getFlingDeceleration();
+        mTouchSlop = controller.getTouchSlop();
+    }
+
+    /**
+     * Create controller with the recorded layout and settings
+     */
+    UnlockSlideController createController() {
+        SlideGeometry geometry = new SlideGeometry();
+        geometry.update(mWidth, mHeight, mThumbWidth, mThumbHeight, mThumbPadding, 0, 0, 0, mLimitProgressForSuccess);
+        UnlockSlideController controller = new UnlockSlideController(geometry);
+        applySettings(controller);
+        return controller;
+    }
+
+    /**
+     * Apply recorded settings to the controller, its layout isn't changed
+     */
+    void applySettings(UnlockSlideController controller) {
+        controller.setResetDurationNanos(mResetDurationNanos);
+        controller.setFlingEnabled(mIsFlingEnabled);
+        controller.setFlingVelocity(mMinFlingVelocity, mMaxFlingVelocity);
+        controller.setFlingDeceleration(mFlingDeceleration);
+        controller.setTouchSlop(mTouchSlop);
+    }
+
+    int getWidth() {
+        return mWidth;
+    }
+
+    int getHeight() {
+        return mHeight;
+    }
+
+    int getThumbWidth() {
+        return mThumbWidth;
+    }
+
+    int getThumbHeight() {
+        return mThumbHeight;
+    }
+
+    int getThumbPadding() {
+        return mThumbPadding;
+    }
+
+    int getLimitProgressForSuccess() {
+        return mLimitProgressForSuccess;
+    }
+
+    /**
+     * Add sample, samples have to be added in time order
+     *
+     * @param action one of {@link UnlockSlideController} ACTION constants
+     */
+    void add(int action, float x, float y, long timeNanos) {
+        if (mSize == mTimes.length) {
+            int capacity = mSize * 2;
+            mActions = Arrays.copyOf(mActions, capacity);
+            mX = Arrays.copyOf(mX, capacity);
+            mY = Arrays.copyOf(mY, capacity);
+            mTimes = Arrays.copyOf(mTimes, capacity);
+        }
+        mActions[mSize] = (byte) action;
+        mX[mSize] = x;
+        mY[mSize] = y;
+        mTimes[mSize] = timeNanos;
+        mSize++;
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    int getAction(int index) {
+        return mActions[index];
+    }
+
+    float getX(int index) {
+        return mX[index];
+    }
+
+    float getY(int index) {
+        return mY[index];
+    }
+
+    long getTimeNanos(int index) {
+        return mTimes[index];
+    }
+
+    /**
+     * Write gestures in the binary format
+     */
+    static void write(List<RecordedGesture> gestures, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        for (RecordedGesture gesture : gestures) {
+            out.writeInt(gesture.mWidth);
+            out.writeInt(gesture.mHeight);
+            out.writeInt(gesture.mThumbWidth);
+            out.writeInt(gesture.mThumbHeight);
+            out.writeInt(gesture.mThumbPadding);
+            out.writeByte(gesture.mLimitProgressForSuccess);
+            out.writeLong(gesture.mResetDurationNanos);
+            out.writeBoolean(gesture.mIsFlingEnabled);
+            out.writeFloat(gesture.mMinFlingVelocity);
+            out.writeFloat(gesture.mMaxFlingVelocity);
+            out.writeFloat(gesture.mFlingDeceleration);
+            out.writeInt(gesture.mTouchSlop);
+            out.writeInt(gesture.mSize);
+            long previousTime = gesture.mSize > 0 ? gesture.mTimes[0] : 0;
+            for (int i = 0; i < gesture.mSize; i++) {
+                out.writeByte(gesture.mActions[i]);
+                out.writeFloat(gesture.mX[i]);
+                out.writeFloat(gesture.mY[i]);
+                out.writeInt((int) ((gesture.mTimes[i] - previousTime) / 1000));
+                previousTime = gesture.mTimes[i];
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Read gestures in the binary format, times of each gesture start from 0
+     *
+     * @throws IOException if the stream isn't in the format or is truncated
+     */
+    static List<RecordedGesture> read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a gesture recording");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported gesture recording version " + version);
+        }
+        List<RecordedGesture> gestures = new ArrayList<>();
+        while (true) {
+            int width;
+            try {
+                width = in.readInt();
+            } catch (EOFException e) {
+                return gestures;
+            }
+            RecordedGesture gesture = new RecordedGesture();
+            gesture.mWidth = width;
+            gesture.mHeight = in.readInt();
+            gesture.mThumbWidth = in.readInt();
+            gesture.mThumbHeight = in.readInt();
+            gesture.mThumbPadding = in.readInt();
+            gesture.mLimitProgressForSuccess = in.readUnsignedByte();
+            gesture.mResetDurationNanos = in.readLong();
+            gesture.mIsFlingEnabled = in.readBoolean();
+            gesture.mMinFlingVelocity = in.readFloat();
+            gesture.mMaxFlingVelocity = in.readFloat();
+            gesture.mFlingDeceleration = in.readFloat();
+            gesture.mTouchSlop = in.readInt();
+            int size = in.readInt();
+            long time = 0;
+            for (int i = 0; i < size; i++) {
+                int action = in.readByte();
+                float x = in.readFloat();
+                float y = in.readFloat();
+                time += in.readInt() * 1000L;
+                gesture.add(action, x, y, time);
+            }
+            gestures.add(gesture);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.alexlytvynenko.unlockslideview;
+
+/**
+ * Time based animation of the thumb position.
+ * <p>
+ * Progress is derived from frame timestamps only, so the animation takes the same time
+ * on any refresh rate and screen density. The animation starts on its first frame.
+ *
+ * @author Alex Lytvynenko
+ */
+final class SlideAnimator {
+
+    private int mFrom;
+    private int mTo;
+    private long mDurationNanos;
+    private long mStartTimeNanos;
+    private boolean mIsRunning;
+    private boolean mIsStarted;
+
+    /**
+     * Start animation from one position to another
+     *
+     * @param durationNanos animation duration, the animation ends on the first frame if it's not positive
+     */
+    void start(int from, int to, long durationNanos) {
+        mFrom = from;
+        mTo = to;
+        mDurationNanos = durationNanos;
+        mIsRunning = true;
+        mIsStarted = false;
+    }
+
+    /**
+     * Get linear fraction of the animation for the frame
+     *
+     * @param frameTimeNanos frame time
+     * @return fraction from 0 to 1, animation is finished when it reaches 1
+     */
+    float getFraction(long frameTimeNanos) {
+        if (!mIsRunning) {
+            return 1;
+        }
+        if (!mIsStarted) {
+            mIsStarted = true;
+            mStartTimeNanos = frameTimeNanos;
+        }
+        float fraction = mDurationNanos > 0
+                ? (float) (frameTimeNanos - mStartTimeNanos) / mDurationNanos
+                : 1;
+        if (fraction >= 1) {
+            fraction = 1;
+            mIsRunning = false;
+        }
+        return fraction;
+    }
+
+    /**
+     * Get position for the interpolated fraction
+     */
+    int getPosition(float interpolatedFraction) {
+        return mFrom + Math.round((mTo - mFrom) * interpolatedFraction);
+    }
+
+    void cancel() {
+        mIsRunning = false;
+    }
+
+    boolean isRunning() {
+        return mIsRunning;
+    }
+
+    int getTo() {
+        return mTo;
+    }
+
+    /**
+     * Get time of the first frame of the animation
+     */
+    long getStartTimeNanos() {
+        return mStartTimeNanos;
+    }
+}
@@ -0,0 +1,128 @@
+package com.alexlytvynenko.unlockslideview;
+
+/**
+ * Layout of {@link UnlockSlideView} parts for the thumb at the start of the slide.
+ * <p>
+ * It's computed once when the size or a layout property changes, so a frame only applies
+ * the drag offset to the thumb and the label reveal edge.
+ *
+ * @author Alex Lytvynenko
+ */
+final class SlideGeometry {
+
+    private int mWidth;
+    private int mHeight;
+    private int mThumbLeft;
+    private int mThumbTop;
+    private int mThumbRight;
+    private int mThumbBottom;
+    private int mMaxProgress;
+    private int mUnlockProgress;
+    private int mLimitProgressForSuccess;
+    private int mTextStart;
+    private int mTextEnd;
+    private int mTextRevealEdge;
+    private int mTextBaseline;
+
+    /**
+     * Compute layout
+     *
+     * @param textStart          X position for start of text resolved for the text gravity
+     * @param textBaselineOffset offset of text center from its baseline
+     */
+    void update(int width, int height,
+                int thumbWidth, int thumbHeight, int thumbPadding,
+                int textStart, int textWidth, float textBaselineOffset,
+                int limitProgressForSuccess) {
+        mWidth = width;
+        mHeight = height;
+
+        // thumb is centered vertically and starts after its padding
+        mThumbTop = height / 2 - thumbHeight / 2;
+        mThumbBottom = mThumbTop + thumbHeight;
+        mThumbLeft = thumbPadding;
+        mThumbRight = thumbPadding + thumbWidth;
+
+        mMaxProgress = width - thumbWidth - thumbPadding;
+        mUnlockProgress = width * limitProgressForSuccess / 100 - thumbWidth - thumbPadding;
+        mLimitProgressForSuccess = limitProgressForSuccess;
+
+        mTextStart = textStart;
+        mTextEnd = mTextStart + textWidth;
+        // text is hidden a bit before the thumb reaches it
+        mTextRevealEdge = mTextEnd - thumbWidth / 3;
+        mTextBaseline = (int) (mThumbTop + thumbHeight / 2 - textBaselineOffset);
+    }
+
+    int getWidth() {
+        return mWidth;
+    }
+
+    int getHeight() {
+        return mHeight;
+    }
+
+    int getThumbLeft(int dragProgressX) {
+        return mThumbLeft + dragProgressX;
+    }
+
+    int getThumbRight(int dragProgressX) {
+        return mThumbRight + dragProgressX;
+    }
+
+    int getThumbTop() {
+        return mThumbTop;
+    }
+
+    int getThumbBottom() {
+        return mThumbBottom;
+    }
+
+    /**
+     * Whether the point is on the thumb moved by the drag progress
+     */
+    boolean isOnThumb(float x, float y, int dragProgressX) {
+        return x > mThumbLeft + dragProgressX && x < mThumbRight + dragProgressX
+                && y > mThumbTop && y < mThumbBottom;
+    }
+
+    /**
+     * Get the largest drag progress, the thumb is at the end of the slide
+     */
+    int getMaxProgress() {
+        return mMaxProgress;
+    }
+
+    /**
+     * Get drag progress which reaches the progress to unlock
+     */
+    int getUnlockProgress() {
+        return mUnlockProgress;
+    }
+
+    /**
+     * Get progress to unlock in percents of the width
+     */
+    int getLimitProgressForSuccess() {
+        return mLimitProgressForSuccess;
+    }
+
+    int getTextStart() {
+        return mTextStart;
+    }
+
+    int getTextEnd() {
+        return mTextEnd;
+    }
+
+    int getTextBaseline() {
+        return mTextBaseline;
+    }
+
+    /**
+     * Get width available for the label which isn't covered by the thumb
+     */
+    int getTextAvailableWidth(int dragProgressX) {
+        return mTextRevealEdge - dragProgressX;
+    }
+}
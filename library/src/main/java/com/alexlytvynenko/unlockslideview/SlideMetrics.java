@@ -0,0 +1,324 @@
+package com.alexlytvynenko.unlockslideview;
+
+/**
+ * Frame timing and jank metrics of {@link UnlockSlideView}, enabled by
+ * {@link UnlockSlideView#setMetricsEnabled(boolean)}.
+ * <p>
+ * Values are collected into fixed-size primitive histograms and counters, so collecting them
+ * doesn't allocate. Each histogram has exponential buckets in the range of its metric: draw durations
+ * from 50 µs, reset durations from 25 ms and unlock latencies from 50 ms, doubling up to
+ * {@link Histogram#BUCKET_COUNT} buckets. They can be read from any thread with {@link #getSnapshot(Snapshot)}
+ * into a reused {@link Snapshot}.
+ *
+ * @author Alex Lytvynenko
+ */
+public final class SlideMetrics {
+
+    /**
+     * Interface definition for callbacks invoked on the main thread when a metric is collected
+     *
+     * @author Alex Lytvynenko
+     */
+    public interface Listener {
+        /**
+         * Callback when the view has drawn a frame
+         *
+         * @param drawDurationNanos duration of onDraw
+         */
+        void onFrameDrawn(long drawDurationNanos);
+
+        /**
+         * Callback when frames were dropped while the thumb is dragged or reset
+         *
+         * @param droppedFrames number of vsyncs missed since the previous frame
+         * @param isDragging    true if the thumb is dragged, false if it's reset
+         */
+        void onFramesDropped(int droppedFrames, boolean isDragging);
+
+        /**
+         * Callback when the reset animation has finished
+         *
+         * @param resetDurationNanos time from the first to the last frame of the animation
+         */
+        void onResetFinished(long resetDurationNanos);
+
+        /**
+         * Callback when {@link UnlockSlideView.OnUnlockListener#onUnlock()} is called
+         *
+         * @param unlockLatencyNanos time from touching the thumb to the unlock callback
+         */
+        void onUnlock(long unlockLatencyNanos);
+    }
+
+    /**
+     * Upper bounds of the first buckets, a draw takes less than a millisecond, a reset hundreds
+     * of milliseconds and an unlock from hundreds of milliseconds to seconds
+     */
+    private static final long DRAW_DURATION_FIRST_BOUND_NANOS = 50000L;
+    private static final long RESET_DURATION_FIRST_BOUND_NANOS = 25000000L;
+    private static final long UNLOCK_LATENCY_FIRST_BOUND_NANOS = 50000000L;
+
+    private final Histogram mDrawDurations = new Histogram(DRAW_DURATION_FIRST_BOUND_NANOS);
+    private final Histogram mResetDurations = new Histogram(RESET_DURATION_FIRST_BOUND_NANOS);
+    private final Histogram mUnlockLatencies = new Histogram(UNLOCK_LATENCY_FIRST_BOUND_NANOS);
+    private long mDragFrames;
+    private long mDragDroppedFrames;
+    private long mResetFrames;
+    private long mResetDroppedFrames;
+    private volatile Listener mListener;
+
+    SlideMetrics() {
+    }
+
+    /**
+     * Set listener for metrics as they are collected
+     *
+     * @param listener listener, null to remove it
+     */
+    public void setListener(Listener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Copy current metrics, allocation-free if the snapshot is reused
+     *
+     * @param snapshot snapshot to copy into
+     * @return the same snapshot
+     */
+    public synchronized Snapshot getSnapshot(Snapshot snapshot) {
+        snapshot.mDrawDurations.set(mDrawDurations);
+        snapshot.mResetDurations.set(mResetDurations);
+        snapshot.mUnlockLatencies.set(mUnlockLatencies);
+        snapshot.mDragFrames = mDragFrames;
+        snapshot.mDragDroppedFrames = mDragDroppedFrames;
+        snapshot.mResetFrames = mResetFrames;
+        snapshot.mResetDroppedFrames = mResetDroppedFrames;
+        return snapshot;
+    }
+
+    /**
+     * Clear all collected metrics
+     */
+    public synchronized void clear() {
+        mDrawDurations.clear();
+        mResetDurations.clear();
+        mUnlockLatencies.clear();
+        mDragFrames = 0;
+        mDragDroppedFrames = 0;
+        mResetFrames = 0;
+        mResetDroppedFrames = 0;
+    }
+
+    void onFrameDrawn(long drawDurationNanos) {
+        synchronized (this) {
+            mDrawDurations.add(drawDurationNanos);
+        }
+        Listener listener = mListener;
+        if (listener != null) {
+            listener.onFrameDrawn(drawDurationNanos);
+        }
+    }
+
+    /**
+     * Count frame of dragging or resetting animation
+     *
+     * @param frameDeltaNanos    time since the previous frame
+     * @param frameIntervalNanos time between vsyncs of the display
+     */
+    void onFrame(long frameDeltaNanos, long frameIntervalNanos, boolean isDragging) {
+        int droppedFrames = (int) Math.max(0, (frameDeltaNanos + frameIntervalNanos / 2) / frameIntervalNanos - 1);
+        synchronized (this) {
+            if (isDragging) {
+                mDragFrames++;
+                mDragDroppedFrames += droppedFrames;
+            } else {
+                mResetFrames++;
+                mResetDroppedFrames += droppedFrames;
+            }
+        }
+        Listener listener = mListener;
+        if (listener != null && droppedFrames > 0) {
+            listener.onFramesDropped(droppedFrames, isDragging);
+        }
+    }
+
+    void onResetFinished(long resetDurationNanos) {
+        synchronized (this) {
+            mResetDurations.add(resetDurationNanos);
+        }
+        Listener listener = mListener;
+        if (listener != null) {
+            listener.onResetFinished(resetDurationNanos);
+        }
+    }
+
+    void onUnlock(long unlockLatencyNanos) {
+        synchronized (this) {
+            mUnlockLatencies.add(unlockLatencyNanos);
+        }
+        Listener listener = mListener;
+        if (listener != null) {
+            listener.onUnlock(unlockLatencyNanos);
+        }
+    }
+
+    /**
+     * Copy of metrics at some moment
+     *
+     * @author Alex Lytvynenko
+     */
+    public static final class Snapshot {
+
+        private final Histogram mDrawDurations = new Histogram(DRAW_DURATION_FIRST_BOUND_NANOS);
+        private final Histogram mResetDurations = new Histogram(RESET_DURATION_FIRST_BOUND_NANOS);
+        private final Histogram mUnlockLatencies = new Histogram(UNLOCK_LATENCY_FIRST_BOUND_NANOS);
+        private long mDragFrames;
+        private long mDragDroppedFrames;
+        private long mResetFrames;
+        private long mResetDroppedFrames;
+
+        /**
+         * Get durations of onDraw
+         */
+        public Histogram getDrawDurations() {
+            return mDrawDurations;
+        }
+
+        /**
+         * Get durations of reset animations
+         */
+        public Histogram getResetDurations() {
+            return mResetDurations;
+        }
+
+        /**
+         * Get times from touching the thumb to the unlock callback
+         */
+        public Histogram getUnlockLatencies() {
+            return mUnlockLatencies;
+        }
+
+        /**
+         * Get number of frames while the thumb was dragged
+         */
+        public long getDragFrames() {
+            return mDragFrames;
+        }
+
+        /**
+         * Get number of vsyncs missed while the thumb was dragged
+         */
+        public long getDragDroppedFrames() {
+            return mDragDroppedFrames;
+        }
+
+        /**
+         * Get number of frames of reset animations
+         */
+        public long getResetFrames() {
+            return mResetFrames;
+        }
+
+        /**
+         * Get number of vsyncs missed by reset animations
+         */
+        public long getResetDroppedFrames() {
+            return mResetDroppedFrames;
+        }
+    }
+
+    /**
+     * Histogram of durations with exponential buckets, each bound is twice the previous one
+     *
+     * @author Alex Lytvynenko
+     */
+    public static final class Histogram {
+
+        /**
+         * Number of buckets, the last one has no upper bound
+         */
+        public static final int BUCKET_COUNT = 12;
+
+        private final long mFirstUpperBoundNanos;
+        private final long[] mBuckets = new long[BUCKET_COUNT];
+        private long mCount;
+        private long mTotalNanos;
+        private long mMaxNanos;
+
+        /**
+         * @param firstUpperBoundNanos upper bound of the first bucket
+         */
+        Histogram(long firstUpperBoundNanos) {
+            mFirstUpperBoundNanos = firstUpperBoundNanos;
+        }
+
+        /**
+         * Get upper bound of the bucket
+         *
+         * @param bucket bucket index
+         * @return exclusive upper bound in nanoseconds, {@link Long#MAX_VALUE} for the last bucket
+         */
+        public long getBucketUpperBoundNanos(int bucket) {
+            return bucket < BUCKET_COUNT - 1 ? mFirstUpperBoundNanos << bucket : Long.MAX_VALUE;
+        }
+
+        /**
+         * Get number of values in the bucket
+         *
+         * @param bucket bucket index
+         */
+        public long getBucketCount(int bucket) {
+            return mBuckets[bucket];
+        }
+
+        public long getCount() {
+            return mCount;
+        }
+
+        public long getTotalNanos() {
+            return mTotalNanos;
+        }
+
+        public long getMaxNanos() {
+            return mMaxNanos;
+        }
+
+        /**
+         * Get average value
+         *
+         * @return average in nanoseconds, 0 if there are no values
+         */
+        public long getAverageNanos() {
+            return mCount > 0 ? mTotalNanos / mCount : 0;
+        }
+
+        void add(long nanos) {
+            int bucket = 0;
+            while (bucket < BUCKET_COUNT - 1 && nanos >= getBucketUpperBoundNanos(bucket)) {
+                bucket++;
+            }
+            mBuckets[bucket]++;
+            mCount++;
+            mTotalNanos += nanos;
+            if (nanos > mMaxNanos) {
+                mMaxNanos = nanos;
+            }
+        }
+
+        void set(Histogram histogram) {
+            System.arraycopy(histogram.mBuckets, 0, mBuckets, 0, BUCKET_COUNT);
+            mCount = histogram.mCount;
+            mTotalNanos = histogram.mTotalNanos;
+            mMaxNanos = histogram.mMaxNanos;
+        }
+
+        void clear() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                mBuckets[i] = 0;
+            }
+            mCount = 0;
+            mTotalNanos = 0;
+            mMaxNanos = 0;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Point;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.DrawableRes;
+import android.support.v4.content.ContextCompat;
+import android.support.v4.util.LruCache;
+import android.text.TextPaint;
+
+/**
+ * Resources shared by all {@link UnlockSlideView} instances, e.g. rows of a list which
+ * have the same style. Used on the main thread only.
+ * <p>
+ * Text paints are shared per style and never modified after creation. Drawables aren't cached here,
+ * {@link android.content.res.Resources} already shares their constant states per configuration and theme.
+ * Thumbs are decoded or rasterized once per size and density. Labels are measured once per text and style by {@link LabelCache}.
+ *
+ * @author Alex Lytvynenko
+ */
+final class SlideResources {
+
+    private static final int MAX_TEXT_PAINTS = 16;
+    private static final int MAX_THUMB_BITMAPS_BYTES = 2 * 1024 * 1024;
+
+    private static final LruCache<TextStyle, TextPaint> sTextPaints = new LruCache<>(MAX_TEXT_PAINTS);
+    private static final LruCache<ThumbKey, Bitmap> sThumbBitmaps = new LruCache<ThumbKey, Bitmap>(MAX_THUMB_BITMAPS_BYTES) {
+        @Override
+        protected int sizeOf(ThumbKey key, Bitmap bitmap) {
+            return bitmap.getRowBytes() * bitmap.getHeight();
+        }
+    };
+
+    private SlideResources() {
+    }
+
+    /**
+     * Get a shared text paint for the style, it must not be modified
+     */
+    static TextPaint getTextPaint(int textSize, boolean isTextBold, int textColor) {
+        TextStyle style = new TextStyle(textSize, isTextBold, textColor);
+        TextPaint textPaint = sTextPaints.get(style);
+        if (textPaint == null) {
+            textPaint = new TextPaint();
+            textPaint.setColor(textColor);
+            textPaint.setAntiAlias(true);
+            textPaint.setStyle(Paint.Style.FILL);
+            textPaint.setTextSize(textSize);
+            textPaint.setTypeface(isTextBold ? Typeface.DEFAULT_BOLD : Typeface.DEFAULT);
+            sTextPaints.put(style, textPaint);
+        }
+        return textPaint;
+    }
+
+    /**
+     * Get intrinsic size of the drawable resource without keeping it, bitmaps are decoded only for bounds
+     *
+     * @param outSize receives width and height at the display density
+     */
+    static void getIntrinsicSize(Context context, @DrawableRes int drawableRes, Point outSize) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(context.getResources(), drawableRes, options);
+        if (options.outWidth > 0 && options.outHeight > 0) {
+            outSize.set(options.outWidth, options.outHeight);
+            return;
+        }
+        // not a bitmap, e.g. a shape or a vector
+        Drawable drawable = ContextCompat.getDrawable(context, drawableRes);
+        outSize.set(drawable.getIntrinsicWidth(), drawable.getIntrinsicHeight());
+    }
+
+    /**
+     * Get thumb resource at its final size, so drawing it doesn't scale it every frame.
+     * Bitmaps are decoded at the size instead of the full resolution and the drawable isn't kept.
+     * They are shared per size and density and must not be recycled.
+     */
+    static Bitmap getThumbBitmap(Context context, @DrawableRes int drawableRes, int width, int height) {
+        ThumbKey key = new ThumbKey(drawableRes, width, height, context.getResources().getDisplayMetrics().densityDpi);
+        Bitmap bitmap = sThumbBitmaps.get(key);
+        if (bitmap != null) {
+            return bitmap;
+        }
+        bitmap = decodeBitmap(context.getResources(), drawableRes, width, height);
+        if (bitmap == null) {
+            // a shape, a vector or a nine-patch has to be drawn to be stretched correctly
+            bitmap = getThumbBitmap(ContextCompat.getDrawable(context, drawableRes), width, height);
+        }
+        sThumbBitmaps.put(key, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Get thumb drawable rasterized at its final size, the bitmap isn't shared
+     */
+    static Bitmap getThumbBitmap(Drawable thumb, int width, int height) {
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        thumb.setBounds(0, 0, width, height);
+        thumb.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    /**
+     * Decode bitmap resource subsampled to the smallest power of two not less than the size, then scale it
+     *
+     * @return bitmap of the size, null if the resource isn't a plain bitmap
+     */
+    private static Bitmap decodeBitmap(Resources resources, @DrawableRes int drawableRes, int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        // the size is already in pixels of the display, don't scale by the resource density first
+        options.inScaled = false;
+        BitmapFactory.decodeResource(resources, drawableRes, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+        int sampleSize = 1;
+        while (options.outWidth / (sampleSize * 2) >= width && options.outHeight / (sampleSize * 2) >= height) {
+            sampleSize *= 2;
+        }
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        Bitmap decoded = BitmapFactory.decodeResource(resources, drawableRes, options);
+        if (decoded == null) {
+            return null;
+        }
+        if (decoded.getNinePatchChunk() != null) {
+            decoded.recycle();
+            return null;
+        }
+        if (decoded.getWidth() == width && decoded.getHeight() == height) {
+            return decoded;
+        }
+        Bitmap bitmap = Bitmap.createScaledBitmap(decoded, width, height, true);
+        if (bitmap != decoded)
+            decoded.recycle();
+        return bitmap;
+    }
+
+    /**
+     * Key of a rasterized thumb
+     */
+    private static final class ThumbKey {
+
+        private final int mDrawableRes;
+        private final int mWidth;
+        private final int mHeight;
+        private final int mDensityDpi;
+
+        ThumbKey(int drawableRes, int width, int height, int densityDpi) {
+            mDrawableRes = drawableRes;
+            mWidth = width;
+            mHeight = height;
+            mDensityDpi = densityDpi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ThumbKey)) return false;
+            ThumbKey key = (ThumbKey) o;
+            return mDrawableRes == key.mDrawableRes
+                    && mWidth == key.mWidth
+                    && mHeight == key.mHeight
+                    && mDensityDpi == key.mDensityDpi;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mDrawableRes;
+            result = 31 * result + mWidth;
+            result = 31 * result + mHeight;
+            result = 31 * result + mDensityDpi;
+            return result;
+        }
+    }
+
+    /**
+     * Key of a text style
+     */
+    private static final class TextStyle {
+
+        private final int mTextSize;
+        private final boolean mIsTextBold;
+        private final int mTextColor;
+
+        TextStyle(int textSize, boolean isTextBold, int textColor) {
+            mTextSize = textSize;
+            mIsTextBold = isTextBold;
+            mTextColor = textColor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TextStyle)) return false;
+            TextStyle style = (TextStyle) o;
+            return mTextSize == style.mTextSize
+                    && mIsTextBold == style.mIsTextBold
+                    && mTextColor == style.mTextColor;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mTextSize;
+            result = 31 * result + (mIsTextBold ? 1 : 0);
+            result = 31 * result + mTextColor;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.alexlytvynenko.unlockslideview;
+
+/**
+ * Detects the drag sample which reaches the progress to unlock.
+ * <p>
+ * Samples are checked after the thumb position is updated, and the time of crossing
+ * is interpolated between the sample before the threshold and the sample after it.
+ *
+ * @author Alex Lytvynenko
+ */
+final class ThresholdDetector {
+
+    private int mThreshold;
+    private boolean mHasSample;
+    private int mLastPosition;
+    private long mLastTimeNanos;
+    private boolean mIsCrossed;
+    private long mCrossingTimeNanos;
+
+    /**
+     * Start detection for a new gesture
+     *
+     * @param threshold    thumb position which has to be reached
+     * @param position     thumb position at the start of the gesture
+     * @param timeNanos    time of the gesture start
+     */
+    void start(int threshold, int position, long timeNanos) {
+        mThreshold = threshold;
+        mIsCrossed = false;
+        mHasSample = true;
+        mLastPosition = position;
+        mLastTimeNanos = timeNanos;
+    }
+
+    /**
+     * Reset detection, the next sample isn't interpolated against the previous one
+     */
+    void reset() {
+        mIsCrossed = false;
+        mHasSample = false;
+    }
+
+    /**
+     * Add thumb position sample
+     *
+     * @return true if this sample is the first one which reaches the threshold
+     */
+    boolean onSample(int position, long timeNanos) {
+        boolean isCrossing = false;
+        if (!mIsCrossed && position >= mThreshold) {
+            mIsCrossed = true;
+            isCrossing = true;
+            mCrossingTimeNanos = timeNanos;
+            if (mHasSample && mLastPosition < mThreshold) {
+                mCrossingTimeNanos = mLastTimeNanos + (long) ((double) (timeNanos - mLastTimeNanos)
+                        * (mThreshold - mLastPosition) / (position - mLastPosition));
+            }
+        }
+        mHasSample = true;
+        mLastPosition = position;
+        mLastTimeNanos = timeNanos;
+        return isCrossing;
+    }
+
+    /**
+     * Mark threshold as crossed at the specified time, e.g. by an animation
+     */
+    void setCrossed(long timeNanos) {
+        mIsCrossed = true;
+        mCrossingTimeNanos = timeNanos;
+    }
+
+    boolean isCrossed() {
+        return mIsCrossed;
+    }
+
+    /**
+     * Get interpolated time when the threshold was reached
+     */
+    long getCrossingTimeNanos() {
+        return mCrossingTimeNanos;
+    }
+}
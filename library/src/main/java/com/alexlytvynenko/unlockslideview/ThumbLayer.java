@@ -0,0 +1,170 @@
+package com.alexlytvynenko.unlockslideview;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+
+/**
+ * Thumb of {@link UnlockSlideView} drawn by its own view in the overlay of the parent.
+ * <p>
+ * The thumb view has its own display list, so moving the thumb only changes its translation
+ * and neither the thumb nor the host view with the background and label are recorded again.
+ * The thumb view follows position, alpha and visibility of the host before every frame.
+ * <p>
+ * The overlay is drawn above all children of the parent and without the transform and clip
+ * of the host, so the layer draws the thumb only while the host isn't scaled, rotated or clipped
+ * and no sibling drawn after the host overlaps it. Otherwise the host draws the thumb itself,
+ * see {@link #isDrawingThumb()}.
+ *
+ * @author Alex Lytvynenko
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+final class ThumbLayer implements ViewTreeObserver.OnPreDrawListener {
+
+    private final View mHost;
+    private final ThumbView mThumbView;
+    private final Rect mHostRect = new Rect();
+    private final Rect mSiblingRect = new Rect();
+    private ViewGroup mParent;
+    private ViewTreeObserver mViewTreeObserver;
+    private int mDragProgressX;
+    private boolean mIsVisible = true;
+    private boolean mIsDrawingThumb;
+
+    ThumbLayer(View host) {
+        mHost = host;
+        mThumbView = new ThumbView(host.getContext());
+    }
+
+    /**
+     * Whether the layer can be used for the host, it requires hardware acceleration and a parent view
+     */
+    static boolean isSupported(View host) {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2
+                && host.isHardwareAccelerated()
+                && host.getParent() instanceof ViewGroup;
+    }
+
+    /**
+     * Add thumb view to the overlay of the host parent, host has to be attached
+     */
+    void attach() {
+        mParent = (ViewGroup) mHost.getParent();
+        mParent.getOverlay().add(mThumbView);
+        mViewTreeObserver = mHost.getViewTreeObserver();
+        mViewTreeObserver.addOnPreDrawListener(this);
+        mIsDrawingThumb = canMirrorHost();
+        onPreDraw();
+    }
+
+    void detach() {
+        if (mParent == null) {
+            return;
+        }
+        if (mViewTreeObserver.isAlive())
+            mViewTreeObserver.removeOnPreDrawListener(this);
+        mParent.getOverlay().remove(mThumbView);
+        mViewTreeObserver = null;
+        mParent = null;
+    }
+
+    boolean isAttached() {
+        return mParent != null;
+    }
+
+    /**
+     * Whether the thumb is drawn by the layer, false while the host can't be mirrored
+     * and has to draw the thumb itself
+     */
+    boolean isDrawingThumb() {
+        return mParent != null && mIsDrawingThumb;
+    }
+
+    void setThumb(Drawable thumb) {
+        mThumbView.mThumb = thumb;
+        mThumbView.invalidate();
+    }
+
+    /**
+     * Set thumb bounds for the start of the slide, in host coordinates
+     */
+    void setBounds(int left, int top, int right, int bottom) {
+        mThumbView.layout(left, top, right, bottom);
+        mThumbView.invalidate();
+    }
+
+    /**
+     * Move thumb by the drag progress without drawing it again
+     */
+    void setDragProgress(int dragProgressX) {
+        mDragProgressX = dragProgressX;
+        mThumbView.setTranslationX(mHost.getLeft() + mHost.getTranslationX() + dragProgressX);
+    }
+
+    void setVisible(boolean isVisible) {
+        mIsVisible = isVisible;
+        onPreDraw();
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        // follow the host, e.g. scrolled in a list, only view properties are updated
+        mThumbView.setTranslationX(mHost.getLeft() + mHost.getTranslationX() + mDragProgressX);
+        mThumbView.setTranslationY(mHost.getTop() + mHost.getTranslationY());
+        mThumbView.setAlpha(mHost.getAlpha());
+        boolean isDrawingThumb = canMirrorHost();
+        mThumbView.setVisibility(isDrawingThumb && mIsVisible && mHost.isShown() ? View.VISIBLE : View.INVISIBLE);
+        if (isDrawingThumb != mIsDrawingThumb) {
+            mIsDrawingThumb = isDrawingThumb;
+            // the host starts or stops drawing the thumb itself
+            mHost.invalidate();
+        }
+        return true;
+    }
+
+    /**
+     * Whether the thumb view looks the same as the thumb drawn by the host: the host has no scale,
+     * rotation or clip bounds and no visible sibling after it in the parent overlaps it
+     */
+    private boolean canMirrorHost() {
+        if (mHost.getScaleX() != 1 || mHost.getScaleY() != 1 || mHost.getRotation() != 0
+                || mHost.getRotationX() != 0 || mHost.getRotationY() != 0 || mHost.getClipBounds() != null) {
+            return false;
+        }
+        mHost.getHitRect(mHostRect);
+        for (int i = mParent.indexOfChild(mHost) + 1; i < mParent.getChildCount(); i++) {
+            View sibling = mParent.getChildAt(i);
+            if (sibling.getVisibility() != View.VISIBLE) {
+                continue;
+            }
+            sibling.getHitRect(mSiblingRect);
+            if (Rect.intersects(mHostRect, mSiblingRect)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class ThumbView extends View {
+
+        private Drawable mThumb;
+
+        ThumbView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            if (mThumb != null) {
+                mThumb.setBounds(0, 0, getWidth(), getHeight());
+                mThumb.draw(canvas);
+            }
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.alexlytvynenko.unlockslideview;
+
+/**
+ * Drag, reset and unlock logic of {@link UnlockSlideView} without Android dependencies.
+ * <p>
+ * It takes touch samples and frame times as primitives and moves the thumb by them,
+ * reporting state changes and unlocks to its {@link Listener}. The view only forwards
+ * events and draws the thumb at {@link #getDragProgress()}. Nothing is allocated
+ * while handling events, so gestures can be replayed and benchmarked on a plain JVM.
+ *
+ * @author Alex Lytvynenko
+ */
+final class UnlockSlideController {
+
+    /**
+     * Touch actions, the same values as {@code MotionEvent} actions
+     */
+    static final int ACTION_DOWN = 0;
+    static final int ACTION_UP = 1;
+    static final int ACTION_MOVE = 2;
+    static final int ACTION_CANCEL = 3;
+
+    /**
+     * States of the slide
+     */
+    static final int STATE_IDLE = 0;
+    static final int STATE_DRAGGING = 1;
+    static final int STATE_RESETTING = 2;
+    static final int STATE_UNLOCKED = 3;
+
+    /**
+     * Callbacks invoked while handling touch samples and frames
+     */
+    interface Listener {
+        /**
+         * Callback when the state has changed
+         */
+        void onStateChanged(int state);
+
+        /**
+         * Callback when the thumb has reached the progress to unlock
+         *
+         * @param crossingTimeNanos time the progress was reached, interpolated between samples
+         */
+        void onUnlock(long crossingTimeNanos);
+
+        /**
+         * Callback when the reset animation has finished
+         *
+         * @param resetDurationNanos time from the first to the last frame of the animation
+         */
+        void onResetFinished(long resetDurationNanos);
+    }
+
+    /**
+     * Easing of the reset animation
+     */
+    interface Easing {
+        float getInterpolation(float input);
+    }
+
+    private static final Easing LINEAR = new Easing() {
+        @Override
+        public float getInterpolation(float input) {
+            return input;
+        }
+    };
+
+    private final SlideGeometry mGeometry;
+    private final ThresholdDetector mThresholdDetector = new ThresholdDetector();
+    private final VelocityEstimator mVelocityEstimator = new VelocityEstimator();
+    private final SlideAnimator mAnimator = new SlideAnimator();
+    private Listener mListener;
+
+    private long mResetDurationNanos;
+    private Easing mResetEasing = LINEAR;
+    private boolean mIsFlingEnabled;
+    private float mMinFlingVelocity;
+    private float mMaxFlingVelocity = Float.MAX_VALUE;
+    private float mFlingDeceleration;
+    private int mTouchSlop;
+
+    private int mDragProgress;
+    private int mStartTouchX;
+    private float mDownX;
+    private float mDownY;
+    private boolean mIsDragging;
+    private boolean mIsPastTouchSlop;
+    private boolean mIsFlinging;
+    private int mState = STATE_IDLE;
+
+    /**
+     * @param geometry layout of the slide, it's read on every sample, so it can be updated later
+     */
+    UnlockSlideController(SlideGeometry geometry) {
+        mGeometry = geometry;
+    }
+
+    void setListener(Listener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Set duration of the reset from the end of the slide, a shorter one takes proportionally less
+     */
+    void setResetDurationNanos(long resetDurationNanos) {
+        mResetDurationNanos = resetDurationNanos;
+    }
+
+    void setResetEasing(Easing resetEasing) {
+        mResetEasing = resetEasing != null ? resetEasing : LINEAR;
+    }
+
+    /**
+     * Set whether the thumb released fast enough to reach the progress to unlock slides to the end
+     */
+    void setFlingEnabled(boolean isFlingEnabled) {
+        mIsFlingEnabled = isFlingEnabled;
+    }
+
+    /**
+     * @param minFlingVelocity minimum velocity of a fling in pixels per second
+     * @param maxFlingVelocity velocity of a fling is limited to it, in pixels per second
+     */
+    void setFlingVelocity(float minFlingVelocity, float maxFlingVelocity) {
+        mMinFlingVelocity = minFlingVelocity;
+        mMaxFlingVelocity = maxFlingVelocity;
+    }
+
+    /**
+     * @param flingDeceleration deceleration of a fling in pixels per second squared
+     */
+    void setFlingDeceleration(float flingDeceleration) {
+        mFlingDeceleration = flingDeceleration;
+    }
+
+    /**
+     * Set distance a touch can wander before the gesture is known to be horizontal or vertical.
+     * The thumb moves only after a horizontal one and is released on a vertical one, so the parent
+     * can scroll. 0 disables it, the thumb moves from the first sample.
+     */
+    void setTouchSlop(int touchSlop) {
+        mTouchSlop = touchSlop;
+    }
+
+    SlideGeometry getGeometry() {
+        return mGeometry;
+    }
+
+    long getResetDurationNanos() {
+        return mResetDurationNanos;
+    }
+
+    boolean isFlingEnabled() {
+        return mIsFlingEnabled;
+    }
+
+    float getMinFlingVelocity() {
+        return mMinFlingVelocity;
+    }
+
+    float getMaxFlingVelocity() {
+        return mMaxFlingVelocity;
+    }
+
+    float getFlingDeceleration() {
+        return mFlingDeceleration;
+    }
+
+    int getTouchSlop() {
+        return mTouchSlop;
+    }
+
+    /**
+     * Handle touch sample
+     *
+     * @param action    one of ACTION constants
+     * @param timeNanos time of the sample, in the same base as frame times
+     * @return true if the sample is used to drag the thumb
+     */
+    boolean onTouch(int action, float x, float y, long timeNanos) {
+        switch (action) {
+            case ACTION_DOWN:
+                mIsDragging = !mAnimator.isRunning() && mGeometry.isOnThumb(x, y, mDragProgress);
+                if (!mIsDragging) {
+                    return false;
+                }
+                mStartTouchX = (int) x;
+                mDownX = x;
+                mDownY = y;
+                mIsPastTouchSlop = mTouchSlop <= 0;
+                mThresholdDetector.start(mGeometry.getUnlockProgress(), mDragProgress, timeNanos);
+                mVelocityEstimator.clear();
+                mVelocityEstimator.add(x, timeNanos);
+                setState(STATE_DRAGGING);
+                return true;
+            case ACTION_MOVE:
+                if (!mIsDragging) {
+                    return false;
+                }
+                if (!mIsPastTouchSlop) {
+                    checkTouchSlop(x, y);
+                    if (!mIsPastTouchSlop) {
+                        return mIsDragging;
+                    }
+                }
+                onDragSample(x, timeNanos);
+                return true;
+            case ACTION_UP:
+                if (!mIsDragging) {
+                    return false;
+                }
+                if (!mIsPastTouchSlop) {
+                    // a tap on the thumb doesn't move it
+                    release();
+                    return true;
+                }
+                // the last position may reach the progress as well
+                onDragSample(x, timeNanos);
+                mIsDragging = false;
+                // finish slide by fling if it's fast enough
+                boolean isFlung = !mThresholdDetector.isCrossed() && flingToUnlockIfNeeded();
+                mThresholdDetector.reset();
+                if (!isFlung)
+                    resetIfNeeded();
+                return true;
+            case ACTION_CANCEL:
+                if (!mIsDragging) {
+                    return false;
+                }
+                release();
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Move thumb for the animation frame
+     *
+     * @return true if the animation needs the next frame
+     */
+    boolean onFrame(long frameTimeNanos) {
+        if (!mAnimator.isRunning()) {
+            return false;
+        }
+        float fraction = mAnimator.getFraction(frameTimeNanos);
+        if (mIsFlinging) {
+            // uniform deceleration
+            mDragProgress = mAnimator.getPosition(1 - (1 - fraction) * (1 - fraction));
+        } else {
+            mDragProgress = mAnimator.getPosition(mResetEasing.getInterpolation(fraction));
+        }
+        if (mAnimator.isRunning()) {
+            return true;
+        }
+        mDragProgress = mAnimator.getTo();
+        if (mIsFlinging) {
+            // fling has reached the end, unlock and go back
+            mIsFlinging = false;
+            mThresholdDetector.setCrossed(frameTimeNanos);
+            notifyUnlock();
+            mThresholdDetector.reset();
+            resetIfNeeded();
+        } else {
+            setState(STATE_IDLE);
+            if (mListener != null)
+                mListener.onResetFinished(frameTimeNanos - mAnimator.getStartTimeNanos());
+        }
+        return mAnimator.isRunning();
+    }
+
+    /**
+     * Release thumb and finish animations at once.
+     *
+     * @param notify true to report the unlock of a fling which is going to unlock before the thumb goes back,
+     *               false to cancel it silently, e.g. when the view is recycled for another item
+     */
+    void jumpToIdle(long timeNanos, boolean notify) {
+        if (mIsDragging) {
+            mIsDragging = false;
+            mThresholdDetector.reset();
+        }
+        if (mAnimator.isRunning()) {
+            mAnimator.cancel();
+            if (mIsFlinging) {
+                mIsFlinging = false;
+                if (notify) {
+                    mThresholdDetector.setCrossed(timeNanos);
+                    notifyUnlock();
+                }
+                mThresholdDetector.reset();
+            }
+        }
+        mDragProgress = 0;
+        setState(STATE_IDLE);
+    }
+
+    /**
+     * Get thumb offset from the start of the slide
+     */
+    int getDragProgress() {
+        return mDragProgress;
+    }
+
+    int getState() {
+        return mState;
+    }
+
+    /**
+     * Whether the thumb is held
+     */
+    boolean isDragging() {
+        return mIsDragging;
+    }
+
+    /**
+     * Whether the held thumb has been moved horizontally past the touch slop, the gesture belongs to the slide
+     */
+    boolean isPastTouchSlop() {
+        return mIsDragging && mIsPastTouchSlop;
+    }
+
+    /**
+     * Whether the thumb is animated by a reset or a fling, touches are ignored meanwhile
+     */
+    boolean isAnimating() {
+        return mAnimator.isRunning();
+    }
+
+    private void onDragSample(float x, long timeNanos) {
+        mVelocityEstimator.add(x, timeNanos);
+        // avoid to reach a negative progress or a progress more than maximum
+        mDragProgress = Math.max(0, Math.min((int) x - mStartTouchX, mGeometry.getMaxProgress()));
+        if (mThresholdDetector.onSample(mDragProgress, timeNanos)) {
+            notifyUnlock();
+        }
+    }
+
+    /**
+     * Decide direction of the gesture once it leaves the touch slop, the thumb is released
+     * on a vertical one. The drag starts at the slop, so the thumb doesn't jump.
+     */
+    private void checkTouchSlop(float x, float y) {
+        float dx = x - mDownX;
+        float absDx = Math.abs(dx);
+        float absDy = Math.abs(y - mDownY);
+        if (absDy > mTouchSlop && absDy > absDx) {
+            release();
+        } else if (absDx > mTouchSlop) {
+            mIsPastTouchSlop = true;
+            mStartTouchX = (int) (mDownX + (dx > 0 ? mTouchSlop : -mTouchSlop));
+        }
+    }
+
+    /**
+     * Release thumb without a fling
+     */
+    private void release() {
+        mIsDragging = false;
+        mThresholdDetector.reset();
+        resetIfNeeded();
+    }
+
+    private void notifyUnlock() {
+        setState(STATE_UNLOCKED);
+        if (mListener != null)
+            mListener.onUnlock(mThresholdDetector.getCrossingTimeNanos());
+    }
+
+    /**
+     * Start animation to the end of slide if thumb is released fast enough to reach the progress to unlock
+     *
+     * @return true if fling is started
+     */
+    private boolean flingToUnlockIfNeeded() {
+        if (!mIsFlingEnabled || mFlingDeceleration <= 0) {
+            return false;
+        }
+        float velocity = Math.min(mVelocityEstimator.getVelocity(), mMaxFlingVelocity);
+        if (velocity <= 0 || velocity < mMinFlingVelocity) {
+            return false;
+        }
+        int projectedProgress = mDragProgress + (int) (velocity * velocity / (2 * mFlingDeceleration));
+        if (projectedProgress < mGeometry.getUnlockProgress()) {
+            return false;
+        }
+        // decelerate uniformly till the end, it takes twice the time of moving there with start velocity
+        int maxProgress = mGeometry.getMaxProgress();
+        long duration = (long) (2000000000L * (maxProgress - mDragProgress) / velocity);
+        mIsFlinging = true;
+        mAnimator.start(mDragProgress, maxProgress, duration);
+        setState(STATE_DRAGGING);
+        return true;
+    }
+
+    /**
+     * Reset progress if thumb was released before the end.
+     * It takes the reset duration for the whole slide and proportionally less for a shorter one.
+     */
+    private void resetIfNeeded() {
+        if (mDragProgress > 0) {
+            int maxProgress = mGeometry.getMaxProgress();
+            long duration = maxProgress > 0
+                    ? mResetDurationNanos * Math.min(mDragProgress, maxProgress) / maxProgress
+                    : 0;
+            mAnimator.start(mDragProgress, 0, duration);
+            setState(STATE_RESETTING);
+        } else {
+            setState(STATE_IDLE);
+        }
+    }
+
+    private void setState(int state) {
+        if (mState != state) {
+            mState = state;
+            if (mListener != null)
+                mListener.onStateChanged(state);
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.alexlytvynenko.unlockslideview;
 
+import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.Point;
 import android.graphics.Rect;
-import android.graphics.Typeface;
+import android.graphics.Shader;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
+import android.hardware.SensorManager;
+import android.os.Build;
 import android.support.annotation.DrawableRes;
 import android.support.annotation.IntDef;
 import android.support.annotation.IntRange;
@@ -17,11 +26,20 @@ import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.WindowManager;
+import android.view.animation.AnimationUtils;
+import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
 
+import static com.alexlytvynenko.unlockslideview.UnlockSlideView.ProgressState.DRAGGING;
+import static com.alexlytvynenko.unlockslideview.UnlockSlideView.ProgressState.IDLE;
+import static com.alexlytvynenko.unlockslideview.UnlockSlideView.ProgressState.RESETTING;
+import static com.alexlytvynenko.unlockslideview.UnlockSlideView.ProgressState.UNLOCKED;
 import static com.alexlytvynenko.unlockslideview.UnlockSlideView.ResetSpeed.FAST;
 import static com.alexlytvynenko.unlockslideview.UnlockSlideView.ResetSpeed.NORMAL;
 import static com.alexlytvynenko.unlockslideview.UnlockSlideView.ResetSpeed.SLOW;
@@ -33,6 +51,8 @@ import static com.alexlytvynenko.unlockslideview.UnlockSlideView.TextGravity.NON
  * Created by alex_lytvynenko on 05.01.17.
  *
  * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_resetSpeed
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_resetDuration
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_resetInterpolator
  * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_slideBackground
  * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_thumb
  * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_thumb_width
@@ -45,10 +65,43 @@ import static com.alexlytvynenko.unlockslideview.UnlockSlideView.TextGravity.NON
  * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_textPadding
  * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_textGravity
  * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_limitProgress
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_labelCache
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_lowLatency
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_flingToUnlock
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_flingVelocity
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_flingFriction
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_textAsync
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_shimmer
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_shimmerColor
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_shimmerWidth
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_shimmerPeriod
+ * @attr ref com.alexlytvynenko.unlockslideview.R.styleable#UnlockSlideView_layeredRendering
  */
 public class UnlockSlideView extends View {
 
     private final int DEFAULT_TEXT_SIZE = 16;
+    /**
+     * Time in millis the previous per-frame reset needed for 1000px at 60 fps with speed of 1px
+     */
+    private static final long RESET_DURATION_PER_SPEED = 16666;
+    private final int DEFAULT_FLING_VELOCITY = 600;
+    /**
+     * Deceleration of a fling with friction of 1, in pixels per second squared per pixel density
+     * (meters to inches times 160 dpi), the same physics {@link android.widget.Scroller} uses
+     */
+    private static final float FLING_DECELERATION_PER_DENSITY = SensorManager.GRAVITY_EARTH * 39.37f * 160 * 0.84f;
+    private final int DEFAULT_SHIMMER_WIDTH = 48;
+    private static final int DEFAULT_SHIMMER_PERIOD = 2000;
+
+    /**
+     * Updates needed after a property change, they are done at once or together by {@link Editor#apply()}
+     */
+    private static final int UPDATE_TEXT_PAINT = 1;
+    private static final int UPDATE_TEXT = 1 << 1;
+    private static final int UPDATE_LABEL = 1 << 2;
+    private static final int UPDATE_GEOMETRY = 1 << 3;
+    private static final int UPDATE_LAYOUT = 1 << 4;
+    private static final int UPDATE_DRAW = 1 << 5;
 
     @IntDef({SLOW, NORMAL, FAST})
     @Retention(RetentionPolicy.SOURCE)
@@ -66,15 +119,40 @@ public class UnlockSlideView extends View {
         int CENTER_OF_THUMB = 3;
     }
 
+    @IntDef({IDLE, DRAGGING, RESETTING, UNLOCKED})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface ProgressState {
+        int IDLE = UnlockSlideController.STATE_IDLE;
+        int DRAGGING = UnlockSlideController.STATE_DRAGGING;
+        int RESETTING = UnlockSlideController.STATE_RESETTING;
+        int UNLOCKED = UnlockSlideController.STATE_UNLOCKED;
+    }
+
     private Drawable mThumb;
+    /**
+     * Thumb as it was set, it's rasterized again whenever the size changes; a resource thumb is decoded
+     * by {@link #mThumbRes} and inflated only if it's requested by {@link #getThumbDrawable()}
+     */
+    private Drawable mThumbSource;
+    private @DrawableRes int mThumbRes;
+    private boolean mIsThumbChanged;
+    private final Point mThumbSize = new Point();
+    private int mRasterizedThumbWidth;
+    private int mRasterizedThumbHeight;
     private Drawable mBackground;
     private int mBackgroundWidth;
     private int mBackgroundHeight;
+    private int mWidthMeasureSpec;
+    private int mHeightMeasureSpec;
     private int mThumbWidth;
     private int mThumbHeight;
     private int mThumbPadding;
     private @ResetSpeed int mResetSpeed;
+    private long mResetDuration;
+    private Interpolator mResetInterpolator;
     private String mText;
+    private String mPendingText;
+    private int mTextGeneration;
     private boolean mIsTextBold;
     private int mTextColor;
     private int mTextSize;
@@ -84,17 +162,59 @@ public class UnlockSlideView extends View {
 
     private TextPaint mTextPaint;
     private Rect mTextRect = new Rect();
+    private LabelText mLabelText = new LabelText();
     private int mTextWidth;
-    private int mStartTextPosition;
-    private int mEndTextPosition;
-
-    private int mDragProgressX;
-    private int mStartTouchedX;
-    private boolean mIsTouched;
-    private boolean mIsResetting;
-    private boolean mIsUnlocked;
+    private int mTextHeight;
+    private float mTextBaselineOffset;
+    private boolean mIsLabelCacheEnabled;
+    private LabelLayer mLabelLayer = new LabelLayer();
+    private Rect mLabelRect = new Rect();
+    private Rect mDirtyRect = new Rect();
+    private SlideGeometry mGeometry = new SlideGeometry();
+    private boolean mIsLayeredRenderingEnabled;
+    private ThumbLayer mThumbLayer;
+    private int mDrawnVisibleStart;
+
+    private boolean mIsShimmerEnabled;
+    private int mShimmerColor;
+    private int mShimmerWidth;
+    private int mShimmerPeriod;
+    private TextPaint mShimmerPaint;
+    private final Matrix mShimmerMatrix = new Matrix();
+    private long mShimmerStartTimeNanos;
+
+    private UnlockSlideController mController = new UnlockSlideController(mGeometry);
+    private long mLastUnlockLatencyNanos;
+    private boolean mIsLowLatencyEnabled;
+    private boolean mIsInvalidatePending;
+    private boolean mIsFlingToUnlockEnabled;
+    private int mFlingVelocity;
+    private int mMaximumFlingVelocity;
+    private float mFlingFriction;
+
+    private FrameScheduler mFrameScheduler;
+    private FrameScheduler.Callback mFrameCallback;
+    private TestHook mTestHook;
+    private FrameRateHint mFrameRateHint;
+
+    private SlideMetrics mMetrics;
+    private GestureRecorder mGestureRecorder;
+    private long mFrameIntervalNanos = 16666667;
+    private long mLastFrameTimeNanos;
+    private long mTouchDownTimeNanos;
+    private boolean mIsAttached;
+    private Editor mEditor;
+    private boolean mIsEditing;
+    private int mPendingUpdates;
 
     private WeakReference<OnUnlockListener> mOnUnlockListenerReference;
+    private WeakReference<OnProgressListener> mOnProgressListenerReference;
+    private @ProgressState int mProgressState = IDLE;
+    private @ProgressState int mNextProgressState;
+    private boolean mHasNextProgressState;
+    private boolean mIsProgressPending;
+    private float mReportedProgress;
+    private @ProgressState int mReportedProgressState = IDLE;
 
     public UnlockSlideView(Context context) {
         super(context);
@@ -120,23 +240,74 @@ public class UnlockSlideView extends View {
         void onUnlock();
     }
 
+    /**
+     * Interface definition for a callback to be invoked when the thumb moves or the slide state changes.
+     * It's called on the main thread at most once per frame, in sync with drawing the thumb.
+     *
+     * @author Alex Lytvynenko
+     */
+    public interface OnProgressListener {
+        /**
+         * Callback when the progress or the state has changed since the previous call
+         *
+         * @param progress progress of the thumb from 0 at the start to 1 at the end of the slide
+         * @param state    {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.ProgressState} state
+         */
+        void onProgress(float progress, @ProgressState int state);
+    }
+
+    /**
+     * Hook for tests replaying gestures against the view, called on the main thread
+     */
+    interface TestHook {
+        /**
+         * Callback when a frame scheduled by {@link FrameScheduler} is dispatched to the view
+         */
+        void onFrame(long frameTimeNanos);
+
+        /**
+         * Callback when the area of the moved thumb is invalidated
+         */
+        void onInvalidateThumbArea();
+
+        /**
+         * Callback when the thumb unlocks, before {@link OnUnlockListener#onUnlock()}
+         *
+         * @param crossingTimeNanos time the progress to unlock was reached
+         */
+        void onUnlock(long crossingTimeNanos);
+
+        /**
+         * Callback when the reset animation has finished
+         */
+        void onResetFinished(long resetDurationNanos);
+    }
+
     private void init(Context context, AttributeSet attrs) {
         float density = getResources().getDisplayMetrics().density;
 
-        mThumb = ContextCompat.getDrawable(context, R.drawable.thumb);
+        setThumbResource(R.drawable.thumb);
         mBackground = ContextCompat.getDrawable(context, R.drawable.bg);
-        mThumbWidth = mThumb.getIntrinsicWidth();
-        mThumbHeight = mThumb.getIntrinsicHeight();
         mResetSpeed = ResetSpeed.NORMAL;
+        mResetDuration = convertResetSpeedToDuration(mResetSpeed);
+        mResetInterpolator = new LinearInterpolator();
         mTextGravity = TextGravity.NONE;
         mText = "";
-        mEndTextPosition = -1;
-        mStartTextPosition = -1;
         mLimitProgressForSuccess = 95;
 
         mTextColor = ContextCompat.getColor(context, android.R.color.black);
         mTextSize = (int) (DEFAULT_TEXT_SIZE * density);
 
+        mFlingVelocity = (int) (DEFAULT_FLING_VELOCITY * density);
+        mFlingFriction = ViewConfiguration.getScrollFriction();
+        mMaximumFlingVelocity = ViewConfiguration.get(context).getScaledMaximumFlingVelocity();
+        mController.setTouchSlop(ViewConfiguration.get(context).getScaledTouchSlop());
+
+        mShimmerColor = Color.WHITE;
+        mShimmerWidth = (int) (DEFAULT_SHIMMER_WIDTH * density);
+        mShimmerPeriod = DEFAULT_SHIMMER_PERIOD;
+
+        String asyncText = null;
         if (attrs != null) {
             // Attribute initialization
             final TypedArray a = context.obtainStyledAttributes(attrs,
@@ -146,15 +317,20 @@ public class UnlockSlideView extends View {
             if (background != null)
                 mBackground = background;
 
-            Drawable thumb = a.getDrawable(R.styleable.UnlockSlideView_thumb);
-            if (thumb != null) {
-                mThumb = thumb;
-                mThumbWidth = thumb.getIntrinsicWidth();
-                mThumbHeight = thumb.getIntrinsicHeight();
+            int thumbRes = a.getResourceId(R.styleable.UnlockSlideView_thumb, 0);
+            if (thumbRes != 0) {
+                setThumbResource(thumbRes);
+            } else if (a.hasValue(R.styleable.UnlockSlideView_thumb)) {
+                setThumbSource(a.getDrawable(R.styleable.UnlockSlideView_thumb));
             }
 
             int resetSpeedAttr = a.getInt(R.styleable.UnlockSlideView_resetSpeed, 2);
             mResetSpeed = convertAttrValueToResetSpeed(resetSpeedAttr);
+            mResetDuration = a.getInt(R.styleable.UnlockSlideView_resetDuration,
+                    (int) convertResetSpeedToDuration(mResetSpeed));
+            int resetInterpolatorRes = a.getResourceId(R.styleable.UnlockSlideView_resetInterpolator, 0);
+            if (resetInterpolatorRes != 0)
+                mResetInterpolator = AnimationUtils.loadInterpolator(context, resetInterpolatorRes);
 
             mThumbWidth = a.getDimensionPixelSize(R.styleable.UnlockSlideView_thumb_width, mThumbWidth);
             mThumbHeight = a.getDimensionPixelSize(R.styleable.UnlockSlideView_thumb_height, mThumbHeight);
@@ -168,13 +344,31 @@ public class UnlockSlideView extends View {
             mTextGravity = convertAttrValueToTextGravity(textGravityAttr);
 
             String text = a.getString(R.styleable.UnlockSlideView_text);
-            if (!TextUtils.isEmpty(text))
-                mText = text;
+            if (!TextUtils.isEmpty(text)) {
+                if (a.getBoolean(R.styleable.UnlockSlideView_textAsync, false))
+                    asyncText = text;
+                else
+                    mText = text;
+            }
 
             mTextSize = (int) a.getDimension(R.styleable.UnlockSlideView_textSize, mTextSize);
             mTextColor = a.getColor(R.styleable.UnlockSlideView_textColor, mTextColor);
             mTextPadding = a.getDimensionPixelSize(R.styleable.UnlockSlideView_textPadding, 0);
             mIsTextBold = a.getBoolean(R.styleable.UnlockSlideView_textBold, false);
+            mIsLabelCacheEnabled = a.getBoolean(R.styleable.UnlockSlideView_labelCache, false);
+            mIsLowLatencyEnabled = a.getBoolean(R.styleable.UnlockSlideView_lowLatency, false);
+            mIsLayeredRenderingEnabled = a.getBoolean(R.styleable.UnlockSlideView_layeredRendering, false);
+
+            mIsFlingToUnlockEnabled = a.getBoolean(R.styleable.UnlockSlideView_flingToUnlock, false);
+            // the attribute is in dp per second, the controller takes pixels per second
+            mFlingVelocity = (int) (a.getFloat(R.styleable.UnlockSlideView_flingVelocity, DEFAULT_FLING_VELOCITY)
+                    * density);
+            mFlingFriction = a.getFloat(R.styleable.UnlockSlideView_flingFriction, mFlingFriction);
+
+            mIsShimmerEnabled = a.getBoolean(R.styleable.UnlockSlideView_shimmer, false);
+            mShimmerColor = a.getColor(R.styleable.UnlockSlideView_shimmerColor, mShimmerColor);
+            mShimmerWidth = a.getDimensionPixelSize(R.styleable.UnlockSlideView_shimmerWidth, mShimmerWidth);
+            mShimmerPeriod = Math.max(1, a.getInt(R.styleable.UnlockSlideView_shimmerPeriod, mShimmerPeriod));
 
             mLimitProgressForSuccess = a.getInt(R.styleable.UnlockSlideView_limitProgress, mLimitProgressForSuccess);
             if (mLimitProgressForSuccess > 100)
@@ -185,126 +379,373 @@ public class UnlockSlideView extends View {
             a.recycle();
         }
 
-        mTextPaint = new TextPaint();
-        mTextPaint.setColor(mTextColor);
-        mTextPaint.setAntiAlias(true);
-        mTextPaint.setStyle(Paint.Style.FILL);
-        mTextPaint.setTextSize(mTextSize);
-        mTextPaint.setTypeface(mIsTextBold ? Typeface.DEFAULT_BOLD : Typeface.DEFAULT);
-        mTextWidth = (int) mTextPaint.measureText(mText);
+        updateTextPaint();
+        measureText();
+        updateGeometry();
+        if (asyncText != null)
+            setTextAsync(asyncText);
+
+        mFrameRateHint = new FrameRateHint(this);
+        mController.setResetEasing(new UnlockSlideController.Easing() {
+            @Override
+            public float getInterpolation(float input) {
+                return mResetInterpolator.getInterpolation(input);
+            }
+        });
+        mController.setListener(new UnlockSlideController.Listener() {
+            @Override
+            public void onStateChanged(int state) {
+                // the highest refresh rate while the thumb is held or moves, the default one when idle
+                mFrameRateHint.setHigh(state != IDLE);
+                setProgressState(state);
+            }
+
+            @Override
+            public void onUnlock(long crossingTimeNanos) {
+                if (mTestHook != null)
+                    mTestHook.onUnlock(crossingTimeNanos);
+                notifyUnlock(crossingTimeNanos);
+            }
+
+            @Override
+            public void onResetFinished(long resetDurationNanos) {
+                if (mTestHook != null)
+                    mTestHook.onResetFinished(resetDurationNanos);
+                if (mMetrics != null)
+                    mMetrics.onResetFinished(resetDurationNanos);
+            }
+        });
+        updateController();
+
+        mFrameCallback = new FrameScheduler.Callback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                onAnimationFrame(frameTimeNanos);
+            }
+        };
+        mFrameScheduler = FrameScheduler.create(this, mFrameCallback);
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        mBackgroundWidth = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
-        mBackgroundHeight = getDefaultSize(getSuggestedMinimumHeight(), heightMeasureSpec);
-        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        mWidthMeasureSpec = widthMeasureSpec;
+        mHeightMeasureSpec = heightMeasureSpec;
+        setMeasuredDimension(resolveSize(getIntrinsicWidth(), widthMeasureSpec),
+                resolveSize(getIntrinsicHeight(), heightMeasureSpec));
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mBackgroundWidth = w;
+        mBackgroundHeight = h;
+        updateGeometry();
+        mLabelLayer.invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mIsAttached = true;
+        updateFrameInterval();
+        updateThumbLayer();
+        updateFrameSchedulerActive();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mIsAttached = false;
+        updateFrameSchedulerActive();
+        if (mThumbLayer != null)
+            mThumbLayer.detach();
+        mLabelLayer.release();
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateFrameSchedulerActive();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateFrameSchedulerActive();
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        updateFrameSchedulerActive();
+    }
 
-        // init start and end position for text
-        if (mEndTextPosition == -1)
-            mEndTextPosition = getEndTextPosition();
-        if (mStartTextPosition == -1)
-            mStartTextPosition = getStartTextPosition();
+    @Override
+    public void onWindowFocusChanged(boolean hasWindowFocus) {
+        super.onWindowFocusChanged(hasWindowFocus);
+        // the gesture can't continue without focus, release thumb as on ACTION_CANCEL
+        if (!hasWindowFocus && mController.isDragging())
+            onDragEnded(UnlockSlideController.ACTION_CANCEL, 0, System.nanoTime());
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        long drawStartNanos = mMetrics != null ? System.nanoTime() : 0;
 
         // draw the background
         if (mBackground != null) {
-            mBackground.setBounds(0, 0, mBackgroundWidth, mBackgroundHeight);
             mBackground.draw(canvas);
         }
 
-        // calculate thumb bounds
-        int startTop = mBackgroundHeight / 2 - mThumbHeight / 2;
+        int dragProgressX = mController.getDragProgress();
+        // a resource thumb of no size is never decoded
+        boolean isThumbDrawn = !isThumbLayered() && mThumb != null;
+        // move thumb bounds, the thumb layer moves its own view instead
+        if (isThumbDrawn) {
+            mThumb.setBounds(mGeometry.getThumbLeft(dragProgressX),
+                    mGeometry.getThumbTop(),
+                    mGeometry.getThumbRight(dragProgressX),
+                    mGeometry.getThumbBottom());
+        }
+
+        // draw the visible part of the text, it's truncated at start by the thumb
+        int visibleStart = mLabelText.getVisibleStart(mGeometry.getTextAvailableWidth(dragProgressX));
+        mDrawnVisibleStart = visibleStart;
+
+        int textEnd = mGeometry.getTextEnd();
+        int xPos = (int) (textEnd - mLabelText.getWidth(visibleStart));
+        int yPos = mGeometry.getTextBaseline();
+
+        if (!canvas.quickReject(mLabelRect.left, mLabelRect.top, mLabelRect.right, mLabelRect.bottom,
+                Canvas.EdgeType.AA)) {
+            // the shimmer paint only differs by its gradient, moved by the shimmer animation
+            Paint labelPaint = mShimmerStartTimeNanos != 0 ? mShimmerPaint : mTextPaint;
+            if (mIsLabelCacheEnabled) {
+                // reveal the pre-rendered label by clipping instead of drawing text
+                if (!mLabelLayer.isValid())
+                    mLabelLayer.build(mLabelText, mTextPaint, mTextRect);
+                mLabelLayer.draw(canvas, textEnd - mLabelText.getWidth(), yPos, xPos, labelPaint);
+            } else {
+                canvas.drawText(mLabelText.getChars(), visibleStart, mLabelText.length() - visibleStart,
+                        xPos, yPos, labelPaint);
+            }
+        }
+
+        // draw thumb
+        if (isThumbDrawn) {
+            Rect thumbBounds = mThumb.getBounds();
+            if (!canvas.quickReject(thumbBounds.left, thumbBounds.top,
+                    thumbBounds.right, thumbBounds.bottom, Canvas.EdgeType.AA))
+                mThumb.draw(canvas);
+        }
 
-        mThumb.setBounds(mDragProgressX + mThumbPadding,
-                startTop,
-                mDragProgressX + mThumbWidth + mThumbPadding,
-                startTop + mThumbHeight);
+        if (mMetrics != null)
+            mMetrics.onFrameDrawn(System.nanoTime() - drawStartNanos);
+    }
 
-        // draw the text
-        String ellipsizedText = String.valueOf(TextUtils.ellipsize(mText, mTextPaint,
-                mEndTextPosition - mDragProgressX - mThumbWidth / 3,
-                TextUtils.TruncateAt.START));
+    /**
+     * Compute layout once the size or a property affecting it changes, frames only apply the drag progress
+     */
+    private void updateGeometry() {
+        updateThumbBitmap();
+        mGeometry.update(mBackgroundWidth, mBackgroundHeight,
+                mThumbWidth, mThumbHeight, mThumbPadding,
+                getStartTextPosition(), mTextWidth, mTextBaselineOffset,
+                mLimitProgressForSuccess);
+
+        if (mBackground != null)
+            mBackground.setBounds(0, 0, mBackgroundWidth, mBackgroundHeight);
 
-        if (!ellipsizedText.isEmpty()
-                && !ellipsizedText.equals(mText)
-                && String.valueOf(ellipsizedText.charAt(0)).equals("…")) {
-            ellipsizedText = ellipsizedText.substring(1);
+        // area which the whole label can take, including glyph overhangs
+        int textEnd = mGeometry.getTextEnd();
+        int textX = (int) (textEnd - mLabelText.getWidth());
+        int baseline = mGeometry.getTextBaseline();
+        mLabelRect.set(textX + Math.min(0, mTextRect.left) - 1,
+                (int) (baseline + mTextPaint.ascent()) - 1,
+                Math.max(textEnd, textX + mTextRect.right) + 1,
+                (int) (baseline + mTextPaint.descent()) + 1);
+
+        if (isThumbLayerAttached()) {
+            mThumbLayer.setThumb(mThumb);
+            mThumbLayer.setBounds(mGeometry.getThumbLeft(0), mGeometry.getThumbTop(),
+                    mGeometry.getThumbRight(0), mGeometry.getThumbBottom());
+            mThumbLayer.setDragProgress(mController.getDragProgress());
+        }
+    }
+
+    /**
+     * Rasterize thumb at its final size once the drawable or the size changes,
+     * so frames draw it without scaling
+     */
+    private void updateThumbBitmap() {
+        if (!mIsThumbChanged && mThumbWidth == mRasterizedThumbWidth && mThumbHeight == mRasterizedThumbHeight) {
+            return;
         }
+        if (mThumbWidth <= 0 || mThumbHeight <= 0) {
+            return;
+        }
+        mIsThumbChanged = false;
+        mRasterizedThumbWidth = mThumbWidth;
+        mRasterizedThumbHeight = mThumbHeight;
+        Bitmap thumbBitmap;
+        if (mThumbRes != 0) {
+            thumbBitmap = SlideResources.getThumbBitmap(getContext(), mThumbRes, mThumbWidth, mThumbHeight);
+        } else {
+            thumbBitmap = SlideResources.getThumbBitmap(mThumbSource, mThumbWidth, mThumbHeight);
+        }
+        mThumb = new BitmapDrawable(getResources(), thumbBitmap);
+    }
 
-        mTextPaint.getTextBounds(mText, 0, mText.length(), mTextRect);
+    /**
+     * Use thumb resource with its intrinsic size, it's decoded at the final size by {@link #updateThumbBitmap()}
+     */
+    private void setThumbResource(@DrawableRes int drawableRes) {
+        SlideResources.getIntrinsicSize(getContext(), drawableRes, mThumbSize);
+        mThumbSource = null;
+        mThumbRes = drawableRes;
+        mThumb = null;
+        mThumbWidth = mThumbSize.x;
+        mThumbHeight = mThumbSize.y;
+        mIsThumbChanged = true;
+    }
 
-        int xPos = (int) (mEndTextPosition - mTextPaint.measureText(ellipsizedText));
-        int yPos = (int) ((mThumb.getBounds().centerY()) - ((mTextPaint.descent() + mTextPaint.ascent()) / 2));
+    /**
+     * Use thumb drawable with its intrinsic size, it's drawn until it's rasterized by {@link #updateThumbBitmap()}
+     */
+    private void setThumbSource(Drawable thumb) {
+        mThumbSource = thumb;
+        mThumbRes = 0;
+        mThumb = thumb;
+        mThumbWidth = thumb.getIntrinsicWidth();
+        mThumbHeight = thumb.getIntrinsicHeight();
+        mIsThumbChanged = true;
+    }
 
-        canvas.drawText(ellipsizedText, xPos, yPos, mTextPaint);
+    /**
+     * Whether thumb is drawn by the thumb layer
+     */
+    private boolean isThumbLayered() {
+        return mThumbLayer != null && mThumbLayer.isDrawingThumb();
+    }
 
-        // draw thumb
-        mThumb.draw(canvas);
+    /**
+     * Whether the thumb layer is attached, it's kept in sync even while this view draws the thumb itself
+     */
+    private boolean isThumbLayerAttached() {
+        return mThumbLayer != null && mThumbLayer.isAttached();
+    }
 
-        resetProgressIfNeeded();
+    /**
+     * Draw thumb by the thumb layer if layered rendering is enabled and supported, otherwise by this view
+     */
+    private void updateThumbLayer() {
+        boolean isLayered = mIsLayeredRenderingEnabled && mIsAttached && ThumbLayer.isSupported(this);
+        if (isLayered == isThumbLayerAttached()) {
+            return;
+        }
+        if (isLayered) {
+            if (mThumbLayer == null)
+                mThumbLayer = new ThumbLayer(this);
+            mThumbLayer.attach();
+            updateGeometry();
+        } else {
+            mThumbLayer.detach();
+        }
+        invalidate();
+    }
+
+    /**
+     * Invalidate only the area changed by moving thumb: thumb at the drawn and at the new position,
+     * and the label only if its visible part or the shimmer has changed
+     */
+    private void invalidateThumbArea() {
+        if (mTestHook != null)
+            mTestHook.onInvalidateThumbArea();
+        int dragProgressX = mController.getDragProgress();
+        // the label is drawn again only when the thumb covers another char or the shimmer moves
+        boolean isLabelChanged = mShimmerStartTimeNanos != 0 || mDrawnVisibleStart
+                != mLabelText.getVisibleStart(mGeometry.getTextAvailableWidth(dragProgressX));
+        if (isThumbLayerAttached())
+            mThumbLayer.setDragProgress(dragProgressX);
+        if (isThumbLayered()) {
+            // only translate the thumb
+            if (isLabelChanged)
+                invalidate(mLabelRect);
+            return;
+        }
+        mDirtyRect.set(mGeometry.getThumbLeft(dragProgressX),
+                mGeometry.getThumbTop(),
+                mGeometry.getThumbRight(dragProgressX),
+                mGeometry.getThumbBottom());
+        if (mThumb != null)
+            mDirtyRect.union(mThumb.getBounds());
+        if (isLabelChanged)
+            mDirtyRect.union(mLabelRect);
+        invalidate(mDirtyRect);
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        if (isEnabled() && !mIsResetting) {
+        if (mGestureRecorder != null)
+            mGestureRecorder.record(event, mController);
+        if (isEnabled() && !mController.isAnimating()) {
 
             switch (event.getAction()) {
                 case MotionEvent.ACTION_DOWN:
-                    // check if thumb area is touched
-                    if (isThumbTouched(event)) {
+                    // check if thumb area is touched, other gestures are left to the parent
+                    if (mController.onTouch(UnlockSlideController.ACTION_DOWN, event.getX(), event.getY(),
+                            event.getEventTime() * 1000000L)) {
+                        // shimmer pauses while dragging
+                        if (mShimmerStartTimeNanos != 0) {
+                            mShimmerStartTimeNanos = 0;
+                            invalidate(mLabelRect);
+                        }
+                        mTouchDownTimeNanos = event.getEventTime() * 1000000L;
+                        // a horizontal parent would intercept at the same touch slop before the thumb
+                        // sees the move, keep the gesture until it turns out to be vertical
                         this.getParent().requestDisallowInterceptTouchEvent(true);
-                        mIsTouched = true;
-                        mStartTouchedX = (int) event.getX();
-                    } else {
-                        mIsTouched = false;
-                        this.getParent().requestDisallowInterceptTouchEvent(false);
+                        if (mMetrics != null) {
+                            // track frames while the thumb is dragged
+                            mLastFrameTimeNanos = 0;
+                            mFrameScheduler.scheduleFrame();
+                        }
+                        if (mIsLowLatencyEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP)
+                            requestUnbufferedDispatchCompat(event);
+                        return true;
                     }
-                    break;
+                    return false;
                 case MotionEvent.ACTION_MOVE:
-                    // drag thumb if it's touched
-                    if (mIsTouched) {
-                        // call OnUnlockListener.onUnlock event if is already reached the progress
-                        if (!mIsUnlocked && isReachProgressToUnlock()) {
-                            if (mOnUnlockListenerReference != null) {
-                                OnUnlockListener unlockListener = mOnUnlockListenerReference.get();
-                                if (unlockListener != null) {
-                                    mIsUnlocked = true;
-                                    unlockListener.onUnlock();
-                                }
-                            }
-                        }
-                        // calculate dragging progress
-                        mDragProgressX = (int) event.getX() - mStartTouchedX;
-                        // avoid to reach a negative progress
-                        if (event.getX() < mStartTouchedX) {
-                            mDragProgressX = 0;
-                        }
-                        // avoid to reach a progress more than maximum
-                        if (event.getX() > (mBackgroundWidth - mThumbWidth - mThumbPadding + mStartTouchedX)) {
-                            mDragProgressX = mBackgroundWidth - mThumbWidth - mThumbPadding;
-                        }
-                        invalidate();
+                    // drag thumb if it's touched, other gestures are left to the parent
+                    if (!mController.isDragging()) {
+                        return false;
+                    }
+                    onDragEvent(event);
+                    if (!mController.isDragging()) {
+                        // vertical gesture, the parent can take it over
+                        this.getParent().requestDisallowInterceptTouchEvent(false);
+                        startShimmerIfNeeded();
+                        return false;
+                    }
+                    onProgressChanged();
+                    if (mIsLowLatencyEnabled) {
+                        // coalesce the events into one invalidation per frame
+                        mIsInvalidatePending = true;
+                        mFrameScheduler.scheduleFrame();
+                    } else {
+                        invalidateThumbArea();
                     }
                     break;
                 case MotionEvent.ACTION_UP:
+                    if (mController.isDragging()) {
+                        // batched samples before the last one, the controller flings or resets on release
+                        onDragEvent(event);
+                    }
                     // end drag action
-                    mIsTouched = false;
-                    mIsUnlocked = false;
-                    mStartTouchedX = 0;
-                    this.getParent().requestDisallowInterceptTouchEvent(false);
-                    invalidate();
+                    onDragEnded(UnlockSlideController.ACTION_UP, event.getX(), event.getEventTime() * 1000000L);
                     break;
                 case MotionEvent.ACTION_CANCEL:
                     // end drag action
-                    mIsTouched = false;
-                    mIsUnlocked = false;
-                    mStartTouchedX = 0;
-                    this.getParent().requestDisallowInterceptTouchEvent(false);
-                    invalidate();
+                    onDragEnded(UnlockSlideController.ACTION_CANCEL, 0, event.getEventTime() * 1000000L);
                     break;
             }
             return true;
@@ -313,15 +754,140 @@ public class UnlockSlideView extends View {
     }
 
     /**
-     * Whether progress reaches to specified value {@link #mLimitProgressForSuccess} to call
-     * {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.OnUnlockListener} event
+     * Measure text once for the current text and paint, so drawing doesn't need to measure it.
+     * The measurement is shared with other views showing the same text in the same style.
+     */
+    private void measureText() {
+        applyMeasuredLabel(LabelCache.getInstance().get(mText, mTextPaint));
+    }
+
+    /**
+     * Use measurement of the current text for drawing
+     */
+    private void applyMeasuredLabel(MeasuredLabel measuredLabel) {
+        measuredLabel.copyTo(mLabelText);
+        measuredLabel.getBounds(mTextRect);
+        mTextWidth = (int) mLabelText.getWidth();
+        mTextHeight = (int) Math.ceil(measuredLabel.getDescent() - measuredLabel.getAscent());
+        mTextBaselineOffset = (measuredLabel.getDescent() + measuredLabel.getAscent()) / 2;
+        mLabelLayer.invalidate();
+    }
+
+    /**
+     * Move thumb through all samples of the event, including the batched ones, so OnUnlockListener.onUnlock
+     * is called on the sample which reaches the progress. The current sample of ACTION_UP is the release.
+     * Event time is in uptime base, which is the same monotonic clock as {@link System#nanoTime()}.
+     */
+    private void onDragEvent(MotionEvent event) {
+        for (int i = 0, size = event.getHistorySize(); i < size; i++) {
+            mController.onTouch(UnlockSlideController.ACTION_MOVE, event.getHistoricalX(i), event.getHistoricalY(i),
+                    event.getHistoricalEventTime(i) * 1000000L);
+        }
+        if (event.getAction() == MotionEvent.ACTION_MOVE)
+            mController.onTouch(UnlockSlideController.ACTION_MOVE, event.getX(), event.getY(),
+                    event.getEventTime() * 1000000L);
+    }
+
+    /**
+     * Release thumb, it's flung to the end or reset by the controller
+     */
+    private void onDragEnded(int action, float x, long timeNanos) {
+        mController.onTouch(action, x, 0, timeNanos);
+        this.getParent().requestDisallowInterceptTouchEvent(false);
+        if (mController.isAnimating())
+            mFrameScheduler.scheduleFrame();
+        startShimmerIfNeeded();
+        onProgressChanged();
+        invalidateThumbArea();
+    }
+
+    /**
+     * Call OnUnlockListener.onUnlock event and remember how long it took since the progress was reached
+     */
+    private void notifyUnlock(long crossingTimeNanos) {
+        long nowNanos = System.nanoTime();
+        mLastUnlockLatencyNanos = nowNanos - crossingTimeNanos;
+        if (mMetrics != null)
+            mMetrics.onUnlock(nowNanos - mTouchDownTimeNanos);
+        if (mOnUnlockListenerReference != null) {
+            OnUnlockListener unlockListener = mOnUnlockListenerReference.get();
+            if (unlockListener != null) {
+                unlockListener.onUnlock();
+            }
+        }
+    }
+
+    /**
+     * Deliver touch events as soon as they are available instead of once per frame
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void requestUnbufferedDispatchCompat(MotionEvent event) {
+        requestUnbufferedDispatch(event);
+    }
+
+    /**
+     * Get width to show the thumb and the whole label beside it, laid out as by {@link SlideGeometry#update}.
+     * The slide takes the whole view, the view padding isn't applied.
+     */
+    private int getIntrinsicWidth() {
+        int width = mThumbPadding + Math.max(0, mThumbWidth) + mTextPadding + mTextWidth + mTextPadding
+                + mThumbPadding;
+        return Math.max(width, getSuggestedMinimumWidth());
+    }
+
+    /**
+     * Get height to show the thumb inset by its padding and the label centered on it
+     */
+    private int getIntrinsicHeight() {
+        int height = Math.max(Math.max(0, mThumbHeight) + mThumbPadding * 2, mTextHeight);
+        return Math.max(height, getSuggestedMinimumHeight());
+    }
+
+    /**
+     * Do updates needed after a property change, they are collected while the view is edited
+     */
+    private void update(int updates) {
+        mPendingUpdates |= updates;
+        if (!mIsEditing)
+            applyUpdates();
+    }
+
+    /**
+     * Do collected updates, the text is measured and the geometry is computed at most once
+     */
+    private void applyUpdates() {
+        int updates = mPendingUpdates;
+        mPendingUpdates = 0;
+        if ((updates & UPDATE_TEXT_PAINT) != 0)
+            updateTextPaint();
+        if ((updates & UPDATE_TEXT) != 0) {
+            // it invalidates the label as well
+            measureText();
+        } else if ((updates & UPDATE_LABEL) != 0) {
+            mLabelLayer.invalidate();
+        }
+        if ((updates & UPDATE_GEOMETRY) != 0)
+            updateGeometry();
+        if ((updates & UPDATE_LAYOUT) != 0) {
+            requestLayoutIfNeeded();
+        } else if ((updates & UPDATE_DRAW) != 0) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Request layout only if the measured size changes with the content, e.g. for wrap_content,
+     * otherwise the view is only drawn again and the parent isn't laid out
      */
-    private boolean isReachProgressToUnlock() {
-        return (mDragProgressX + mThumbWidth + mThumbPadding) >= (mBackgroundWidth) * mLimitProgressForSuccess / 100;
+    private void requestLayoutIfNeeded() {
+        if (resolveSize(getIntrinsicWidth(), mWidthMeasureSpec) != getMeasuredWidth()
+                || resolveSize(getIntrinsicHeight(), mHeightMeasureSpec) != getMeasuredHeight())
+            requestLayout();
+        invalidate();
     }
 
     /**
-     * Get X position for start of text
+     * Get X position for start of text, it depends only on layout properties and not on dragging
      */
     private int getStartTextPosition() {
         int startTextPosition = mThumbWidth + mThumbPadding + mTextPadding;
@@ -336,102 +902,441 @@ public class UnlockSlideView extends View {
                 startTextPosition = (mBackgroundWidth + mThumbWidth) / 2 - mTextWidth / 2;
                 break;
         }
-        if (mStartTextPosition != -1 && mStartTextPosition < mDragProgressX + mThumbWidth / 2) {
-            startTextPosition = startTextPosition + mDragProgressX - mStartTextPosition + mThumbWidth / 2;
-        }
         return startTextPosition;
     }
 
     /**
-     * Get X position for end of text
+     * Move thumb for the animation frame and apply pending changes,
+     * next frame is scheduled only while animation is running
      */
-    private int getEndTextPosition() {
-        return getStartTextPosition() + mTextWidth;
+    private void onAnimationFrame(long frameTimeNanos) {
+        if (mTestHook != null)
+            mTestHook.onFrame(frameTimeNanos);
+        if (mMetrics != null)
+            trackFrame(frameTimeNanos);
+        if (mController.isAnimating()) {
+            if (mController.onFrame(frameTimeNanos))
+                mFrameScheduler.scheduleFrame();
+            mIsInvalidatePending = true;
+            onProgressChanged();
+        }
+        if (isShimmerRunning()) {
+            updateShimmer(frameTimeNanos);
+            mFrameScheduler.scheduleFrame();
+        }
+        if (mIsInvalidatePending) {
+            mIsInvalidatePending = false;
+            invalidateThumbArea();
+        }
+        if (mIsProgressPending)
+            dispatchProgress();
     }
 
     /**
-     * Check whether touch is on thumb area.
+     * Allow frame callbacks only while the view is attached and visible. When it stops being visible,
+     * animations jump to their end state, so nothing has to be resumed when it's visible again.
      */
-    private boolean isThumbTouched(MotionEvent event) {
-        float x = event.getX();
-        float y = event.getY();
-        int startTop = mBackgroundHeight / 2 - mThumbHeight / 2;
-        return (x > mDragProgressX && x < mDragProgressX + mThumbWidth)
-                && (y > startTop && y < startTop + mThumbHeight);
+    private void updateFrameSchedulerActive() {
+        // visibility may be dispatched by the super constructor before initialization
+        if (mFrameScheduler == null) {
+            return;
+        }
+        boolean isActive = mIsAttached && getWindowVisibility() == VISIBLE && isShown();
+        if (isActive == mFrameScheduler.isActive()) {
+            return;
+        }
+        mFrameScheduler.setActive(isActive);
+        if (isThumbLayerAttached())
+            mThumbLayer.setVisible(isActive);
+        if (!isActive) {
+            jumpToIdleState(true);
+        } else {
+            startShimmerIfNeeded();
+            if (mIsProgressPending)
+                mFrameScheduler.scheduleFrame();
+        }
     }
 
     /**
-     * Reset progress if thumb was unpressed and was not reached to the finish.
+     * Release thumb and finish animations at once.
+     *
+     * @param notify true to call {@link OnUnlockListener#onUnlock()} for a fling which is going to unlock
+     *               before the thumb goes back, false to cancel it silently
      */
-    private void resetProgressIfNeeded() {
-        if (!mIsTouched && mDragProgressX > 0) {
-            mIsResetting = true;
-            mDragProgressX -= mResetSpeed;
-            if (mDragProgressX < 0) {
-                mDragProgressX = 0;
-            }
-            invalidate();
+    private void jumpToIdleState(boolean notify) {
+        mController.jumpToIdle(System.nanoTime(), notify);
+        mIsInvalidatePending = false;
+        mLastFrameTimeNanos = 0;
+        mShimmerStartTimeNanos = 0;
+        onProgressChanged();
+        if (isThumbLayerAttached())
+            mThumbLayer.setDragProgress(mController.getDragProgress());
+        invalidate();
+    }
+
+    /**
+     * Change state reported to {@link OnProgressListener}. Unlocked state is reported at least once,
+     * the following state is kept until then.
+     */
+    private void setProgressState(@ProgressState int state) {
+        if (mProgressState == UNLOCKED && mIsProgressPending && state != UNLOCKED) {
+            mNextProgressState = state;
+            mHasNextProgressState = true;
+        } else {
+            mProgressState = state;
+            mHasNextProgressState = false;
+        }
+        onProgressChanged();
+    }
+
+    /**
+     * Request a frame to report progress, several changes within a frame are reported once
+     */
+    private void onProgressChanged() {
+        if (mOnProgressListenerReference == null || mOnProgressListenerReference.get() == null) {
+            return;
+        }
+        mIsProgressPending = true;
+        // the frame scheduler is created after the initial state is set
+        if (mFrameScheduler != null)
+            mFrameScheduler.scheduleFrame();
+    }
+
+    /**
+     * Pass reset and fling settings to the controller
+     */
+    private void updateController() {
+        mController.setResetDurationNanos(mResetDuration * 1000000L);
+        mController.setFlingEnabled(mIsFlingToUnlockEnabled);
+        mController.setFlingVelocity(mFlingVelocity, mMaximumFlingVelocity);
+        mController.setFlingDeceleration(mFlingFriction * FLING_DECELERATION_PER_DENSITY
+                * getResources().getDisplayMetrics().density);
+    }
+
+    /**
+     * Report progress and state if they differ from the previously reported ones
+     */
+    private void dispatchProgress() {
+        mIsProgressPending = false;
+        OnProgressListener progressListener = mOnProgressListenerReference != null
+                ? mOnProgressListenerReference.get()
+                : null;
+        if (progressListener == null) {
+            return;
+        }
+        int maxProgress = mGeometry.getMaxProgress();
+        float progress = maxProgress > 0 ? Math.min(1f, (float) mController.getDragProgress() / maxProgress) : 0;
+        if (progress != mReportedProgress || mProgressState != mReportedProgressState) {
+            mReportedProgress = progress;
+            mReportedProgressState = mProgressState;
+            progressListener.onProgress(progress, mProgressState);
+        }
+        if (mHasNextProgressState) {
+            mHasNextProgressState = false;
+            mProgressState = mNextProgressState;
+            onProgressChanged();
+        }
+    }
+
+    /**
+     * Whether shimmer is animated, it's paused while the thumb is dragged
+     */
+    private boolean isShimmerRunning() {
+        return mIsShimmerEnabled && !mController.isDragging() && mShimmerPaint != null && mLabelText.length() > 0;
+    }
+
+    /**
+     * Request shimmer frames, the sweep starts again on the first one
+     */
+    private void startShimmerIfNeeded() {
+        if (mFrameScheduler != null && isShimmerRunning())
+            mFrameScheduler.scheduleFrame();
+    }
+
+    /**
+     * Move the gradient of the shimmer paint across the label, the shader itself isn't recreated
+     */
+    private void updateShimmer(long frameTimeNanos) {
+        if (mShimmerStartTimeNanos == 0)
+            mShimmerStartTimeNanos = frameTimeNanos;
+        long periodNanos = mShimmerPeriod * 1000000L;
+        float fraction = (float) ((frameTimeNanos - mShimmerStartTimeNanos) % periodNanos) / periodNanos;
+        float from = mLabelRect.left - mShimmerWidth;
+        mShimmerMatrix.setTranslate(from + (mLabelRect.right - from) * fraction, 0);
+        mShimmerPaint.getShader().setLocalMatrix(mShimmerMatrix);
+        mIsInvalidatePending = true;
+    }
+
+    /**
+     * Take shared text paint for the text style and create the shimmer paint for it
+     */
+    private void updateTextPaint() {
+        mTextPaint = SlideResources.getTextPaint(mTextSize, mIsTextBold, mTextColor);
+        if (!mIsShimmerEnabled) {
+            mShimmerPaint = null;
+            mShimmerStartTimeNanos = 0;
+            return;
+        }
+        mShimmerPaint = new TextPaint(mTextPaint);
+        // alpha of the colors is taken from the gradient only
+        mShimmerPaint.setAlpha(255);
+        mShimmerPaint.setShader(new LinearGradient(0, 0, mShimmerWidth, 0,
+                new int[]{mTextColor, mShimmerColor, mTextColor}, null, Shader.TileMode.CLAMP));
+        if (mShimmerStartTimeNanos != 0)
+            mShimmerPaint.getShader().setLocalMatrix(mShimmerMatrix);
+    }
+
+    /**
+     * Count dragging and resetting frames and the vsyncs missed between them.
+     * Frames are requested every vsync while the thumb is held to notice the dropped ones.
+     */
+    private void trackFrame(long frameTimeNanos) {
+        boolean isDragging = mController.isDragging();
+        if (!isDragging && !mController.isAnimating()) {
+            mLastFrameTimeNanos = 0;
+            return;
+        }
+        if (mLastFrameTimeNanos != 0)
+            mMetrics.onFrame(frameTimeNanos - mLastFrameTimeNanos, mFrameIntervalNanos, isDragging);
+        mLastFrameTimeNanos = frameTimeNanos;
+        if (isDragging)
+            mFrameScheduler.scheduleFrame();
+    }
+
+    /**
+     * Take time between frames from the refresh rate of the display
+     */
+    private void updateFrameInterval() {
+        WindowManager windowManager = (WindowManager) getContext().getSystemService(Context.WINDOW_SERVICE);
+        float refreshRate = windowManager != null ? windowManager.getDefaultDisplay().getRefreshRate() : 0;
+        if (refreshRate > 0)
+            mFrameIntervalNanos = (long) (1000000000L / refreshRate);
+    }
+
+    /**
+     * Convert value from attrs to {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.ResetSpeed}
+     */
+    private @ResetSpeed int convertAttrValueToResetSpeed(int attrValue) {
+        @ResetSpeed int resetSpeed = ResetSpeed.NORMAL;
+        switch (attrValue) {
+            case 1:
+                resetSpeed = ResetSpeed.SLOW;
+                break;
+            case 2:
+                resetSpeed = ResetSpeed.NORMAL;
+                break;
+            case 3:
+                resetSpeed = ResetSpeed.FAST;
+                break;
+        }
+        return resetSpeed;
+    }
+
+    /**
+     * Convert {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.ResetSpeed} to reset duration in millis
+     */
+    private long convertResetSpeedToDuration(@ResetSpeed int resetSpeed) {
+        return RESET_DURATION_PER_SPEED / resetSpeed;
+    }
+
+    /**
+     * Convert value from attrs to {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.TextGravity}
+     */
+    private @TextGravity int convertAttrValueToTextGravity(int attrValue) {
+        @TextGravity int textGravity = TextGravity.NONE;
+        switch (attrValue) {
+            case 1:
+                textGravity = TextGravity.NONE;
+                break;
+            case 2:
+                textGravity = TextGravity.CENTER_IN_PARENT;
+                break;
+            case 3:
+                textGravity = TextGravity.CENTER_OF_THUMB;
+                break;
+        }
+        return textGravity;
+    }
+
+    /**
+     * Set {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.OnUnlockListener} listener
+     */
+    public void setOnUnlockListener(OnUnlockListener listener) {
+        if (listener == null) {
+            removeOnUnlockListener();
         } else {
-            mIsResetting = false;
+            mOnUnlockListenerReference = new WeakReference<>(listener);
         }
     }
 
     /**
-     * Convert value from attrs to {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.ResetSpeed}
+     * Remove {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.OnUnlockListener} listener
+     */
+    public void removeOnUnlockListener() {
+        if (mOnUnlockListenerReference != null) {
+            mOnUnlockListenerReference.clear();
+        }
+    }
+
+    /**
+     * Set {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.OnProgressListener} listener
+     */
+    public void setOnProgressListener(OnProgressListener listener) {
+        if (listener == null) {
+            removeOnProgressListener();
+        } else {
+            mOnProgressListenerReference = new WeakReference<>(listener);
+        }
+    }
+
+    /**
+     * Remove {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.OnProgressListener} listener
+     */
+    public void removeOnProgressListener() {
+        if (mOnProgressListenerReference != null) {
+            mOnProgressListenerReference.clear();
+        }
+        mIsProgressPending = false;
+    }
+
+    /**
+     * Get current state of the slide
+     *
+     * @return {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.ProgressState} state
+     */
+    public @ProgressState int getProgressState() {
+        return mHasNextProgressState ? mNextProgressState : mProgressState;
+    }
+
+    /**
+     * Get time from the touch event which reached the progress to unlock to the last
+     * {@link OnUnlockListener#onUnlock()} call. The time of reaching the progress is interpolated
+     * between touch samples. It can be read in {@link OnUnlockListener#onUnlock()}.
+     *
+     * @return unlock latency in nanoseconds
+     */
+    public long getLastUnlockLatencyNanos() {
+        return mLastUnlockLatencyNanos;
+    }
+
+    /**
+     * Return view to the initial state without inflating it again, e.g. before binding a list item.
+     * Dragging and animations are stopped and the thumb is moved back to the start at once,
+     * a fling in progress doesn't unlock. Text pending from {@link #setTextAsync(String)} is dropped,
+     * the current label stays.
+     */
+    public void recycle() {
+        jumpToIdleState(false);
+        // a measurement still in flight belongs to the previous item
+        mTextGeneration++;
+        mPendingText = null;
+        mLastUnlockLatencyNanos = 0;
+    }
+
+    /**
+     * Recycle view and bind it to a new item, e.g. in {@code RecyclerView.Adapter.onBindViewHolder}.
+     * The label measurement is shared with other views of the same style, so binding is cheap.
+     *
+     * @param text     text
+     * @param listener {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.OnUnlockListener} listener
+     */
+    public void bind(@NonNull String text, OnUnlockListener listener) {
+        recycle();
+        if (!text.equals(mText))
+            setText(text);
+        setOnUnlockListener(listener);
+    }
+
+    /**
+     * Start changing several properties at once, e.g. on a theme or locale change.
+     * The changes take effect on {@link Editor#apply()} with one text measurement and at most
+     * one layout request. Until then the view isn't updated, so every edit has to be applied
+     * before the next one starts.
+     *
+     * @return editor of the view
+     * @throws IllegalStateException if the previous edit hasn't been applied
+     */
+    public Editor edit() {
+        if (mIsEditing)
+            throw new IllegalStateException("Previous edit() hasn't been applied");
+        if (mEditor == null)
+            mEditor = new Editor();
+        mIsEditing = true;
+        return mEditor;
+    }
+
+    /**
+     * Whether frame timing and jank metrics are collected
+     *
+     * @return true if metrics are enabled
+     */
+    public boolean isMetricsEnabled() {
+        return mMetrics != null;
+    }
+
+    /**
+     * Set whether frame timing and jank metrics are collected, they can be read by {@link #getMetrics()}
+     *
+     * @param isMetricsEnabled metrics collection
+     */
+    public void setMetricsEnabled(boolean isMetricsEnabled) {
+        if (isMetricsEnabled && mMetrics == null) {
+            mMetrics = new SlideMetrics();
+            updateFrameInterval();
+        } else if (!isMetricsEnabled) {
+            mMetrics = null;
+        }
+    }
+
+    /**
+     * Get frame timing and jank metrics
+     *
+     * @return metrics, null if they aren't enabled by {@link #setMetricsEnabled(boolean)}
+     */
+    public SlideMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * Set recorder of touch events, so reported gestures can be replayed in tests
+     *
+     * @param gestureRecorder recorder, null to stop recording
+     */
+    public void setGestureRecorder(GestureRecorder gestureRecorder) {
+        mGestureRecorder = gestureRecorder;
+    }
+
+    /**
+     * Get recorder of touch events
+     *
+     * @return recorder, null if gestures aren't recorded
      */
-    private @ResetSpeed int convertAttrValueToResetSpeed(int attrValue) {
-        @ResetSpeed int resetSpeed = ResetSpeed.NORMAL;
-        switch (attrValue) {
-            case 1:
-                resetSpeed = ResetSpeed.SLOW;
-                break;
-            case 2:
-                resetSpeed = ResetSpeed.NORMAL;
-                break;
-            case 3:
-                resetSpeed = ResetSpeed.FAST;
-                break;
-        }
-        return resetSpeed;
+    public GestureRecorder getGestureRecorder() {
+        return mGestureRecorder;
     }
 
-    /**
-     * Convert value from attrs to {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.TextGravity}
-     */
-    private @TextGravity int convertAttrValueToTextGravity(int attrValue) {
-        @TextGravity int textGravity = TextGravity.NONE;
-        switch (attrValue) {
-            case 1:
-                textGravity = TextGravity.NONE;
-                break;
-            case 2:
-                textGravity = TextGravity.CENTER_IN_PARENT;
-                break;
-            case 3:
-                textGravity = TextGravity.CENTER_OF_THUMB;
-                break;
-        }
-        return textGravity;
+    void setTestHook(TestHook testHook) {
+        mTestHook = testHook;
     }
 
     /**
-     * Set {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.OnUnlockListener} listener
+     * Replace the frame scheduler, e.g. by one a test dispatches vsyncs of.
+     * It has to call {@link #getFrameCallback()} and is activated by the caller.
      */
-    public void setOnUnlockListener(OnUnlockListener listener) {
-        if (listener == null) {
-            removeOnUnlockListener();
-        } else {
-            mOnUnlockListenerReference = new WeakReference<>(listener);
-        }
+    void setFrameScheduler(FrameScheduler frameScheduler) {
+        mFrameScheduler.setActive(false);
+        mFrameScheduler = frameScheduler;
+    }
+
+    FrameScheduler.Callback getFrameCallback() {
+        return mFrameCallback;
     }
 
     /**
-     * Remove {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.OnUnlockListener} listener
+     * Get gesture logic of the view, e.g. to apply recorded settings
      */
-    public void removeOnUnlockListener() {
-        if (mOnUnlockListenerReference != null) {
-            mOnUnlockListenerReference.clear();
-        }
+    UnlockSlideController getController() {
+        return mController;
     }
 
     /**
@@ -450,9 +1355,7 @@ public class UnlockSlideView extends View {
      */
     public void setUnlockBackgroundDrawable(Drawable background) {
         mBackground = background;
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        requestLayout();
+        update(UPDATE_GEOMETRY | UPDATE_LAYOUT);
     }
 
     /**
@@ -462,9 +1365,7 @@ public class UnlockSlideView extends View {
      */
     public void setUnlockBackgroundDrawableResource(@DrawableRes int backgroundRes) {
         mBackground = ContextCompat.getDrawable(getContext(), backgroundRes);
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        requestLayout();
+        update(UPDATE_GEOMETRY | UPDATE_LAYOUT);
     }
 
     /**
@@ -473,7 +1374,9 @@ public class UnlockSlideView extends View {
      * @return thumb drawable
      */
     public Drawable getThumbDrawable() {
-        return mThumb;
+        if (mThumbSource == null)
+            mThumbSource = ContextCompat.getDrawable(getContext(), mThumbRes);
+        return mThumbSource;
     }
 
     /**
@@ -482,12 +1385,8 @@ public class UnlockSlideView extends View {
      * @param thumb thumb drawable
      */
     public void setThumbDrawable(@NonNull Drawable thumb) {
-        mThumb = thumb;
-        mThumbWidth = mThumb.getIntrinsicWidth();
-        mThumbHeight = mThumb.getIntrinsicHeight();
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        invalidate();
+        setThumbSource(thumb);
+        update(UPDATE_GEOMETRY | UPDATE_LAYOUT);
     }
 
     /**
@@ -496,12 +1395,8 @@ public class UnlockSlideView extends View {
      * @param drawableRes thumb drawable resource
      */
     public void setThumbDrawableResource(@DrawableRes int drawableRes) {
-        mThumb = ContextCompat.getDrawable(getContext(), drawableRes);
-        mThumbWidth = mThumb.getIntrinsicWidth();
-        mThumbHeight = mThumb.getIntrinsicHeight();
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        invalidate();
+        setThumbResource(drawableRes);
+        update(UPDATE_GEOMETRY | UPDATE_LAYOUT);
     }
 
     /**
@@ -520,6 +1415,46 @@ public class UnlockSlideView extends View {
      */
     public void setResetSpeed(@ResetSpeed int resetSpeed) {
         mResetSpeed = resetSpeed;
+        mResetDuration = convertResetSpeedToDuration(resetSpeed);
+        updateController();
+    }
+
+    /**
+     * Get duration of resetting the whole slide, shorter slides are reset proportionally faster
+     *
+     * @return reset duration in milliseconds
+     */
+    public long getResetDuration() {
+        return mResetDuration;
+    }
+
+    /**
+     * Set duration of resetting the whole slide, shorter slides are reset proportionally faster
+     *
+     * @param resetDuration reset duration in milliseconds
+     */
+    public void setResetDuration(@IntRange(from = 0) long resetDuration) {
+        mResetDuration = resetDuration;
+        updateController();
+    }
+
+    /**
+     * Get interpolator of resetting
+     *
+     * @return reset interpolator
+     */
+    @NonNull
+    public Interpolator getResetInterpolator() {
+        return mResetInterpolator;
+    }
+
+    /**
+     * Set interpolator of resetting
+     *
+     * @param resetInterpolator reset interpolator
+     */
+    public void setResetInterpolator(@NonNull Interpolator resetInterpolator) {
+        mResetInterpolator = resetInterpolator;
     }
 
     /**
@@ -529,7 +1464,7 @@ public class UnlockSlideView extends View {
      */
     @NonNull
     public String getText() {
-        return mText;
+        return mPendingText != null ? mPendingText : mText;
     }
 
     /**
@@ -538,10 +1473,39 @@ public class UnlockSlideView extends View {
      * @param text text
      */
     public void setText(@NonNull String text) {
+        mTextGeneration++;
+        mPendingText = null;
         mText = text;
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        invalidate();
+        update(UPDATE_TEXT | UPDATE_GEOMETRY | UPDATE_LAYOUT);
+    }
+
+    /**
+     * Set text measuring it on a background thread, so long or complex labels don't block
+     * the main thread. The previous label is shown until the new one is measured.
+     * A later call to {@link #setText(String)} or this method replaces the pending text.
+     *
+     * @param text text
+     */
+    public void setTextAsync(@NonNull String text) {
+        final int generation = ++mTextGeneration;
+        mPendingText = text;
+        // the worker gets a snapshot, the paint of the view may change while it measures
+        AsyncLabelMeasurer.measure(text, new TextPaint(mTextPaint), new AsyncLabelMeasurer.Callback() {
+            @Override
+            public void onMeasured(String text, TextPaint textPaint, MeasuredLabel measuredLabel) {
+                if (generation != mTextGeneration)
+                    return;
+                if (!LabelCache.isSameStyle(textPaint, mTextPaint)) {
+                    // text style has changed while measuring
+                    setTextAsync(text);
+                    return;
+                }
+                mPendingText = null;
+                mText = text;
+                applyMeasuredLabel(measuredLabel);
+                update(UPDATE_GEOMETRY | UPDATE_LAYOUT);
+            }
+        });
     }
 
     /**
@@ -560,10 +1524,7 @@ public class UnlockSlideView extends View {
      */
     public void setTextBold(boolean isTextBold) {
         mIsTextBold = isTextBold;
-        mTextPaint.setTypeface(mIsTextBold ? Typeface.DEFAULT_BOLD : Typeface.DEFAULT);
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        invalidate();
+        update(UPDATE_TEXT_PAINT | UPDATE_TEXT | UPDATE_GEOMETRY | UPDATE_LAYOUT);
     }
 
     /**
@@ -582,9 +1543,7 @@ public class UnlockSlideView extends View {
      */
     public void setThumbPadding(int thumbPadding) {
         mThumbPadding = thumbPadding;
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        invalidate();
+        update(UPDATE_GEOMETRY | UPDATE_LAYOUT);
     }
 
     /**
@@ -603,9 +1562,7 @@ public class UnlockSlideView extends View {
      */
     public void setThumbWidth(int thumbWidth) {
         mThumbWidth = thumbWidth;
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        invalidate();
+        update(UPDATE_GEOMETRY | UPDATE_LAYOUT);
     }
 
     /**
@@ -624,9 +1581,7 @@ public class UnlockSlideView extends View {
      */
     public void setThumbHeight(int thumbHeight) {
         mThumbHeight = thumbHeight;
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        invalidate();
+        update(UPDATE_GEOMETRY | UPDATE_LAYOUT);
     }
 
     /**
@@ -663,9 +1618,7 @@ public class UnlockSlideView extends View {
      */
     public void setTextPadding(int textPadding) {
         mTextPadding = textPadding;
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        invalidate();
+        update(UPDATE_GEOMETRY | UPDATE_LAYOUT);
     }
 
     /**
@@ -694,8 +1647,7 @@ public class UnlockSlideView extends View {
      */
     public void setTextColor(int textColor) {
         mTextColor = textColor;
-        mTextPaint.setColor(textColor);
-        invalidate();
+        update(UPDATE_TEXT_PAINT | UPDATE_DRAW);
     }
 
     /**
@@ -714,10 +1666,7 @@ public class UnlockSlideView extends View {
      */
     public void setTextSize(int textSize) {
         mTextSize = textSize;
-        mTextPaint.setTextSize(textSize);
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        invalidate();
+        update(UPDATE_TEXT_PAINT | UPDATE_TEXT | UPDATE_GEOMETRY | UPDATE_LAYOUT);
     }
 
     /**
@@ -727,9 +1676,7 @@ public class UnlockSlideView extends View {
      */
     public void setTextGravity(@TextGravity int textGravity) {
         mTextGravity = textGravity;
-        mStartTextPosition = -1;
-        mEndTextPosition = -1;
-        invalidate();
+        update(UPDATE_LABEL | UPDATE_GEOMETRY | UPDATE_DRAW);
     }
 
     /**
@@ -749,5 +1696,376 @@ public class UnlockSlideView extends View {
      */
     public void setLimitProgressForSuccess(@IntRange(from = 10, to = 100) int limitProgressForSuccess) {
         mLimitProgressForSuccess = limitProgressForSuccess;
+        update(UPDATE_GEOMETRY);
+    }
+
+    /**
+     * Whether low latency touch mode is enabled
+     *
+     * @return true if low latency touch mode is enabled
+     */
+    public boolean isLowLatencyEnabled() {
+        return mIsLowLatencyEnabled;
+    }
+
+    /**
+     * Set low latency touch mode. While the thumb is dragged, touch events are requested unbuffered
+     * (API 21+), every batched sample is checked for reaching the progress and invalidations are
+     * coalesced into one per frame.
+     *
+     * @param isLowLatencyEnabled low latency touch mode
+     */
+    public void setLowLatencyEnabled(boolean isLowLatencyEnabled) {
+        mIsLowLatencyEnabled = isLowLatencyEnabled;
+    }
+
+    /**
+     * Whether a fast fling which would reach the progress to unlock finishes the slide
+     *
+     * @return true if fling to unlock is enabled
+     */
+    public boolean isFlingToUnlockEnabled() {
+        return mIsFlingToUnlockEnabled;
+    }
+
+    /**
+     * Set whether a fast fling which would reach the progress to unlock finishes the slide
+     *
+     * @param isFlingToUnlockEnabled fling to unlock
+     */
+    public void setFlingToUnlockEnabled(boolean isFlingToUnlockEnabled) {
+        mIsFlingToUnlockEnabled = isFlingToUnlockEnabled;
+        updateController();
+    }
+
+    /**
+     * Get minimum velocity of fling to unlock
+     *
+     * @return fling velocity in pixels per second
+     */
+    public int getFlingVelocity() {
+        return mFlingVelocity;
+    }
+
+    /**
+     * Set minimum velocity of fling to unlock
+     *
+     * @param flingVelocity fling velocity in pixels per second
+     */
+    public void setFlingVelocity(int flingVelocity) {
+        mFlingVelocity = flingVelocity;
+        updateController();
+    }
+
+    /**
+     * Get friction which decelerates fling when projecting where it ends
+     *
+     * @return fling friction
+     */
+    public float getFlingFriction() {
+        return mFlingFriction;
+    }
+
+    /**
+     * Set friction which decelerates fling when projecting where it ends,
+     * {@link ViewConfiguration#getScrollFriction()} by default
+     *
+     * @param flingFriction fling friction
+     */
+    public void setFlingFriction(float flingFriction) {
+        mFlingFriction = flingFriction;
+        updateController();
+    }
+
+    /**
+     * Whether label is pre-rendered once and revealed by clipping while dragging
+     *
+     * @return true if label cache is enabled
+     */
+    public boolean isLabelCacheEnabled() {
+        return mIsLabelCacheEnabled;
+    }
+
+    /**
+     * Set whether label is pre-rendered once and revealed by clipping while dragging.
+     * It's useful for long or complex-script labels which are expensive to draw every frame.
+     * The label is rendered as a mask, so changing text color doesn't render it again.
+     *
+     * @param isLabelCacheEnabled label cache mode
+     */
+    public void setLabelCacheEnabled(boolean isLabelCacheEnabled) {
+        mIsLabelCacheEnabled = isLabelCacheEnabled;
+        if (!isLabelCacheEnabled)
+            mLabelLayer.release();
+        invalidate();
+    }
+
+    /**
+     * Whether thumb is drawn by its own layer
+     *
+     * @return true if layered rendering is enabled
+     */
+    public boolean isLayeredRenderingEnabled() {
+        return mIsLayeredRenderingEnabled;
+    }
+
+    /**
+     * Set whether thumb is drawn by its own layer, so moving it doesn't draw the background
+     * and the label again. It's used on API 18+ with hardware acceleration while the view isn't scaled,
+     * rotated or clipped and isn't covered by a later sibling, otherwise the view draws the thumb itself.
+     *
+     * @param isLayeredRenderingEnabled layered rendering mode
+     */
+    public void setLayeredRenderingEnabled(boolean isLayeredRenderingEnabled) {
+        mIsLayeredRenderingEnabled = isLayeredRenderingEnabled;
+        updateThumbLayer();
+    }
+
+    /**
+     * Whether a glint sweeps across the label
+     *
+     * @return true if shimmer is enabled
+     */
+    public boolean isShimmerEnabled() {
+        return mIsShimmerEnabled;
+    }
+
+    /**
+     * Set whether a glint sweeps across the label. It's paused while the thumb is dragged
+     * or the view isn't visible.
+     *
+     * @param isShimmerEnabled shimmer mode
+     */
+    public void setShimmerEnabled(boolean isShimmerEnabled) {
+        mIsShimmerEnabled = isShimmerEnabled;
+        updateTextPaint();
+        startShimmerIfNeeded();
+        invalidate();
+    }
+
+    /**
+     * Get shimmer color
+     *
+     * @return shimmer color
+     */
+    public int getShimmerColor() {
+        return mShimmerColor;
+    }
+
+    /**
+     * Set color in the middle of the glint
+     *
+     * @param shimmerColor shimmer color
+     */
+    public void setShimmerColor(int shimmerColor) {
+        mShimmerColor = shimmerColor;
+        updateTextPaint();
+        invalidate();
+    }
+
+    /**
+     * Get shimmer width
+     *
+     * @return shimmer width
+     */
+    public int getShimmerWidth() {
+        return mShimmerWidth;
+    }
+
+    /**
+     * Set width of the glint
+     *
+     * @param shimmerWidth shimmer width in pixels
+     */
+    public void setShimmerWidth(int shimmerWidth) {
+        mShimmerWidth = shimmerWidth;
+        updateTextPaint();
+        invalidate();
+    }
+
+    /**
+     * Get shimmer period
+     *
+     * @return shimmer period in millis
+     */
+    public int getShimmerPeriod() {
+        return mShimmerPeriod;
+    }
+
+    /**
+     * Set time the glint takes to sweep across the label
+     *
+     * @param shimmerPeriod shimmer period in millis
+     */
+    public void setShimmerPeriod(@IntRange(from = 1) int shimmerPeriod) {
+        mShimmerPeriod = shimmerPeriod;
+    }
+
+    /**
+     * Editor of view properties returned by {@link #edit()}. Setters have the same effect as the ones
+     * of the view, but the text is measured, the layout is computed and the view is invalidated
+     * only once on {@link #apply()}.
+     *
+     * @author Alex Lytvynenko
+     */
+    public final class Editor {
+
+        private Editor() {
+        }
+
+        /**
+         * Set text
+         *
+         * @param text text
+         * @return this editor
+         */
+        public Editor setText(@NonNull String text) {
+            UnlockSlideView.this.setText(text);
+            return this;
+        }
+
+        /**
+         * Set text size
+         *
+         * @param textSize text size
+         * @return this editor
+         */
+        public Editor setTextSize(int textSize) {
+            UnlockSlideView.this.setTextSize(textSize);
+            return this;
+        }
+
+        /**
+         * Set text style bold
+         *
+         * @param isTextBold bold text style
+         * @return this editor
+         */
+        public Editor setTextBold(boolean isTextBold) {
+            UnlockSlideView.this.setTextBold(isTextBold);
+            return this;
+        }
+
+        /**
+         * Set text color
+         *
+         * @param textColor text color
+         * @return this editor
+         */
+        public Editor setTextColor(int textColor) {
+            UnlockSlideView.this.setTextColor(textColor);
+            return this;
+        }
+
+        /**
+         * Set text padding
+         *
+         * @param textPadding text padding
+         * @return this editor
+         */
+        public Editor setTextPadding(int textPadding) {
+            UnlockSlideView.this.setTextPadding(textPadding);
+            return this;
+        }
+
+        /**
+         * Set text gravity {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.TextGravity}
+         *
+         * @param textGravity text gravity {@link com.alexlytvynenko.unlockslideview.UnlockSlideView.TextGravity}
+         * @return this editor
+         */
+        public Editor setTextGravity(@TextGravity int textGravity) {
+            UnlockSlideView.this.setTextGravity(textGravity);
+            return this;
+        }
+
+        /**
+         * Set thumb drawable
+         *
+         * @param thumb thumb drawable
+         * @return this editor
+         */
+        public Editor setThumbDrawable(@NonNull Drawable thumb) {
+            UnlockSlideView.this.setThumbDrawable(thumb);
+            return this;
+        }
+
+        /**
+         * Set thumb drawable resource
+         *
+         * @param drawableRes thumb drawable resource
+         * @return this editor
+         */
+        public Editor setThumbDrawableResource(@DrawableRes int drawableRes) {
+            UnlockSlideView.this.setThumbDrawableResource(drawableRes);
+            return this;
+        }
+
+        /**
+         * Set thumb padding
+         *
+         * @param thumbPadding thumb padding
+         * @return this editor
+         */
+        public Editor setThumbPadding(int thumbPadding) {
+            UnlockSlideView.this.setThumbPadding(thumbPadding);
+            return this;
+        }
+
+        /**
+         * Set thumb width
+         *
+         * @param thumbWidth thumb width
+         * @return this editor
+         */
+        public Editor setThumbWidth(int thumbWidth) {
+            UnlockSlideView.this.setThumbWidth(thumbWidth);
+            return this;
+        }
+
+        /**
+         * Set thumb height
+         *
+         * @param thumbHeight thumb height
+         * @return this editor
+         */
+        public Editor setThumbHeight(int thumbHeight) {
+            UnlockSlideView.this.setThumbHeight(thumbHeight);
+            return this;
+        }
+
+        /**
+         * Set background drawable
+         *
+         * @param background background drawable
+         * @return this editor
+         */
+        public Editor setUnlockBackgroundDrawable(Drawable background) {
+            UnlockSlideView.this.setUnlockBackgroundDrawable(background);
+            return this;
+        }
+
+        /**
+         * Set background drawable resource
+         *
+         * @param backgroundRes background drawable resource
+         * @return this editor
+         */
+        public Editor setUnlockBackgroundDrawableResource(@DrawableRes int backgroundRes) {
+            UnlockSlideView.this.setUnlockBackgroundDrawableResource(backgroundRes);
+            return this;
+        }
+
+        /**
+         * Apply changes, the view requests layout only if its measured size changes
+         *
+         * @throws IllegalStateException if the edit has been applied already
+         */
+        public void apply() {
+            if (!mIsEditing)
+                throw new IllegalStateException("apply() called without edit()");
+            mIsEditing = false;
+            applyUpdates();
+        }
     }
 }
@@ -0,0 +1,82 @@
+package com.alexlytvynenko.unlockslideview;
+
+/**
+ * Estimates horizontal velocity of a drag from its recent samples.
+ * <p>
+ * Velocity is the slope of a least squares line through the samples of the last 100 ms,
+ * samples before a pause of 40 ms are ignored as the pointer was stopped. Samples are kept
+ * in a fixed ring buffer, so adding them doesn't allocate.
+ *
+ * @author Alex Lytvynenko
+ */
+final class VelocityEstimator {
+
+    private static final int SIZE = 20;
+    private static final long HORIZON_NANOS = 100000000L;
+    private static final long STOPPED_NANOS = 40000000L;
+
+    private final float[] mPositions = new float[SIZE];
+    private final long[] mTimes = new long[SIZE];
+    private int mHead;
+    private int mCount;
+
+    /**
+     * Remove all samples
+     */
+    void clear() {
+        mHead = 0;
+        mCount = 0;
+    }
+
+    /**
+     * Add sample, samples have to be added in time order
+     */
+    void add(float position, long timeNanos) {
+        mPositions[mHead] = position;
+        mTimes[mHead] = timeNanos;
+        mHead = (mHead + 1) % SIZE;
+        if (mCount < SIZE)
+            mCount++;
+    }
+
+    /**
+     * Get velocity at the last sample
+     *
+     * @return velocity in pixels per second, 0 if there are not enough samples
+     */
+    float getVelocity() {
+        if (mCount < 2) {
+            return 0;
+        }
+        int newest = (mHead - 1 + SIZE) % SIZE;
+        long newestTime = mTimes[newest];
+        float newestPosition = mPositions[newest];
+        long previousTime = newestTime;
+        double sumT = 0;
+        double sumX = 0;
+        double sumTT = 0;
+        double sumTX = 0;
+        int n = 0;
+        for (int i = 0; i < mCount; i++) {
+            int index = (newest - i + SIZE) % SIZE;
+            long time = mTimes[index];
+            if (newestTime - time > HORIZON_NANOS || previousTime - time > STOPPED_NANOS) {
+                break;
+            }
+            // relative to the newest sample to keep precision
+            double t = (time - newestTime) / 1e9;
+            double x = mPositions[index] - newestPosition;
+            sumT += t;
+            sumX += x;
+            sumTT += t * t;
+            sumTX += t * x;
+            n++;
+            previousTime = time;
+        }
+        double denominator = n * sumTT - sumT * sumT;
+        if (n < 2 || denominator <= 0) {
+            return 0;
+        }
+        return (float) ((n * sumTX - sumT * sumX) / denominator);
+    }
+}
@@ -0,0 +1,89 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test for {@link FrameScheduler} which {@link UnlockSlideView} deactivates
+ * when it's detached or not visible.
+ */
+public class FrameSchedulerTest {
+
+    private CountingFrameScheduler mScheduler;
+    private int mFrames;
+
+    @Before
+    public void setUp() throws Exception {
+        mFrames = 0;
+        mScheduler = new CountingFrameScheduler(new FrameScheduler.Callback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                mFrames++;
+                // an animation keeps requesting frames
+                mScheduler.scheduleFrame();
+            }
+        });
+    }
+
+    @Test
+    public void oneFrame_isRequestedPerVsync() throws Exception {
+        mScheduler.setActive(true);
+        mScheduler.scheduleFrame();
+        mScheduler.scheduleFrame();
+        assertEquals(1, mScheduler.mRequests);
+
+        mScheduler.dispatchFrame(16000000);
+        assertEquals(1, mFrames);
+        assertEquals(2, mScheduler.mRequests);
+    }
+
+    @Test
+    public void noFrames_areRequestedAfterDetach() throws Exception {
+        mScheduler.setActive(true);
+        mScheduler.scheduleFrame();
+        assertTrue(mScheduler.isFrameScheduled());
+
+        // detached
+        mScheduler.setActive(false);
+        assertFalse(mScheduler.isFrameScheduled());
+        assertEquals(1, mScheduler.mCancels);
+
+        int requests = mScheduler.mRequests;
+        mScheduler.scheduleFrame();
+        // a frame posted before the cancel has no effect
+        mScheduler.dispatchFrame(16000000);
+        assertEquals(requests, mScheduler.mRequests);
+        assertEquals(0, mFrames);
+    }
+
+    @Test
+    public void noFrames_areRequestedBeforeAttach() throws Exception {
+        mScheduler.scheduleFrame();
+        assertFalse(mScheduler.isFrameScheduled());
+        assertEquals(0, mScheduler.mRequests);
+    }
+
+    private static class CountingFrameScheduler extends FrameScheduler {
+
+        int mRequests;
+        int mCancels;
+
+        CountingFrameScheduler(Callback callback) {
+            super(callback);
+        }
+
+        @Override
+        void onScheduleFrame() {
+            mRequests++;
+        }
+
+        @Override
+        void onCancelFrame() {
+            mCancels++;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test for {@link LabelText}, the per-frame text path of {@link UnlockSlideView}.
+ */
+public class LabelTextTest {
+
+    private static final int FRAMES = 100000;
+
+    private LabelText mLabelText;
+
+    @Before
+    public void setUp() throws Exception {
+        mLabelText = new LabelText();
+        mLabelText.setText("HELLO WORLD");
+        float[] advances = mLabelText.getAdvances();
+        for (int i = 0; i < mLabelText.length(); i++) {
+            advances[i] = 10;
+        }
+        mLabelText.onMeasured(5);
+    }
+
+    @Test
+    public void visibleStart_isCorrect() throws Exception {
+        assertEquals(110, mLabelText.getWidth(), 0);
+        // the whole label fits
+        assertEquals(0, mLabelText.getVisibleStart(110));
+        // an ellipsis is reserved when the label is truncated
+        assertEquals(2, mLabelText.getVisibleStart(100));
+        assertEquals(3, mLabelText.getVisibleStart(94));
+        assertEquals(80, mLabelText.getWidth(3), 0);
+        // nothing fits
+        assertEquals(11, mLabelText.getVisibleStart(14));
+        assertEquals(11, mLabelText.getVisibleStart(-20));
+        assertEquals(0, mLabelText.getWidth(11), 0);
+    }
+
+    @Test
+    public void visibleStart_matchesLinearScan() throws Exception {
+        mLabelText.setText("Slide to confirm the payment");
+        float[] advances = mLabelText.getAdvances();
+        for (int i = 0; i < mLabelText.length(); i++) {
+            advances[i] = 3 + i % 7;
+        }
+        mLabelText.onMeasured(4);
+
+        for (float availableWidth = -10; availableWidth < 200; availableWidth += 0.5f) {
+            int expected = mLabelText.length();
+            if (mLabelText.getWidth() <= availableWidth) {
+                expected = 0;
+            } else {
+                float width = 0;
+                while (expected > 0 && width + advances[expected - 1] <= availableWidth - 4) {
+                    width += advances[--expected];
+                }
+            }
+            assertEquals(expected, mLabelText.getVisibleStart(availableWidth));
+        }
+    }
+
+    @Test
+    public void visibleStart_doesNotSplitClusters() throws Exception {
+        // e + combining acute, grinning face (surrogate pair), flag of Ukraine (two regional indicators),
+        // family emoji joined by ZWJ, thumbs up with a skin tone modifier
+        String text = "ae\u0301b\uD83D\uDE00c\uD83C\uDDFA\uD83C\uDDE6d"
+                + "\uD83D\uDC68\u200D\uD83D\uDC69\u200D\uD83D\uDC67e\uD83D\uDC4D\uD83C\uDFFBf";
+        mLabelText.setText(text);
+        float[] advances = mLabelText.getAdvances();
+        for (int i = 0; i < mLabelText.length(); i++) {
+            advances[i] = 10;
+        }
+        mLabelText.onMeasured(0);
+
+        // the acute accent at index 2 isn't shown without its letter
+        assertEquals(3, mLabelText.getVisibleStart(mLabelText.getWidth() - 15));
+        for (float availableWidth = 0; availableWidth <= mLabelText.getWidth(); availableWidth += 5) {
+            int start = mLabelText.getVisibleStart(availableWidth);
+            if (start == 0 || start == text.length()) {
+                continue;
+            }
+            char previous = text.charAt(start - 1);
+            int codePoint = text.codePointAt(start);
+            String message = "start " + start + " at " + availableWidth;
+            assertTrue(message, !Character.isLowSurrogate(text.charAt(start)));
+            assertTrue(message, Character.getType(codePoint) != Character.NON_SPACING_MARK);
+            assertTrue(message, previous != '\u200D' && codePoint != 0x200D);
+            assertTrue(message, codePoint < 0x1F3FB || codePoint > 0x1F3FF);
+            // the visible part starts with a whole flag
+            int regionalIndicators = 0;
+            for (int i = start; i < text.length(); ) {
+                int c = text.codePointAt(i);
+                if (c < 0x1F1E6 || c > 0x1F1FF) {
+                    break;
+                }
+                regionalIndicators++;
+                i += Character.charCount(c);
+            }
+            assertTrue(message, regionalIndicators % 2 == 0);
+        }
+    }
+
+    @Test
+    public void setText_reusesBuffers() throws Exception {
+        char[] chars = mLabelText.getChars();
+        mLabelText.setText("HELLO");
+        assertTrue(chars == mLabelText.getChars());
+        assertEquals(5, mLabelText.length());
+    }
+
+    @Test
+    public void drawFrames_doNotAllocate() throws Exception {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // warm up to let the JIT compile the path
+        long checksum = drawFrames() + drawFrames();
+
+        long baseline = threadBean.getThreadAllocatedBytes(threadId);
+        long overhead = threadBean.getThreadAllocatedBytes(threadId) - baseline;
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        checksum += drawFrames();
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before - overhead;
+
+        assertTrue(checksum != 0);
+        assertEquals("Bytes allocated for " + FRAMES + " frames", 0, allocated);
+    }
+
+    /**
+     * Simulate drag and reset frames the same way {@link UnlockSlideView#onDraw} does
+     */
+    private long drawFrames() {
+        long checksum = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            float availableWidth = 120 - frame % 120;
+            int visibleStart = mLabelText.getVisibleStart(availableWidth);
+            checksum += visibleStart + (long) mLabelText.getWidth(visibleStart);
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,74 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Local unit test for the binary format of {@link RecordedGesture}, recordings are replayed
+ * against the view by the instrumentation tests.
+ */
+public class RecordedGestureTest {
+
+    private static final long MS = 1000000L;
+    private static final long RESET_DURATION_NANOS = 200 * MS;
+
+    @Test
+    public void recording_roundTrips() throws Exception {
+        List<RecordedGesture> gestures = Arrays.asList(drag(1000, 8 * MS), drag(500, 4 * MS));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecordedGesture.write(gestures, out);
+        List<RecordedGesture> read = RecordedGesture.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(2, read.size());
+        for (int g = 0; g < gestures.size(); g++) {
+            RecordedGesture gesture = gestures.get(g);
+            RecordedGesture readGesture = read.get(g);
+            assertEquals(gesture.size(), readGesture.size());
+            for (int i = 0; i < gesture.size(); i++) {
+                assertEquals(gesture.getAction(i), readGesture.getAction(i));
+                assertEquals(gesture.getX(i), readGesture.getX(i), 0);
+                assertEquals(gesture.getY(i), readGesture.getY(i), 0);
+                // times start from 0
+                assertEquals(gesture.getTimeNanos(i) - gesture.getTimeNanos(0), readGesture.getTimeNanos(i));
+            }
+            UnlockSlideController controller = readGesture.createController();
+            assertEquals(900, controller.getGeometry().getMaxProgress());
+            assertEquals(850, controller.getGeometry().getUnlockProgress());
+            assertEquals(RESET_DURATION_NANOS, controller.getResetDurationNanos());
+            assertEquals(16, controller.getTouchSlop());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void read_rejectsOtherFormat() throws Exception {
+        RecordedGesture.read(new ByteArrayInputStream(new byte[]{'P', 'K', 3, 4, 0}));
+    }
+
+    /**
+     * Drag from the thumb to the position at a constant speed, 20 samples, and release there
+     */
+    private static RecordedGesture drag(float toX, long sampleInterval) {
+        SlideGeometry geometry = new SlideGeometry();
+        // thumb is 0..100, max progress is 900, progress to unlock is 850
+        geometry.update(1000, 100, 100, 100, 0, 150, 200, 0, 95);
+        UnlockSlideController controller = new UnlockSlideController(geometry);
+        controller.setResetDurationNanos(RESET_DURATION_NANOS);
+        controller.setTouchSlop(16);
+        RecordedGesture gesture = new RecordedGesture();
+        gesture.setUp(controller);
+        long start = 1000 * MS;
+        gesture.add(UnlockSlideController.ACTION_DOWN, 50, 50, start);
+        for (int i = 1; i <= 20; i++) {
+            gesture.add(UnlockSlideController.ACTION_MOVE, 50 + (toX - 50) * i / 20, 50, start + i * sampleInterval);
+        }
+        gesture.add(UnlockSlideController.ACTION_UP, toX, 50, start + 21 * sampleInterval);
+        return gesture;
+    }
+}
@@ -0,0 +1,74 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test for {@link SlideMetrics} histograms of {@link UnlockSlideView}.
+ */
+public class SlideMetricsTest {
+
+    private static final long US = 1000L;
+    private static final long MS = 1000000L;
+
+    private SlideMetrics mMetrics;
+    private SlideMetrics.Snapshot mSnapshot;
+
+    @Before
+    public void setUp() throws Exception {
+        mMetrics = new SlideMetrics();
+        mSnapshot = new SlideMetrics.Snapshot();
+    }
+
+    @Test
+    public void drawDurations_areSpreadInMicroseconds() throws Exception {
+        mMetrics.onFrameDrawn(30 * US);
+        mMetrics.onFrameDrawn(120 * US);
+        mMetrics.onFrameDrawn(700 * US);
+        mMetrics.onFrameDrawn(20 * MS);
+
+        SlideMetrics.Histogram histogram = mMetrics.getSnapshot(mSnapshot).getDrawDurations();
+        // buckets are below 50, 100, 200, 400, 800 µs, ...
+        assertBucket(histogram, 0, 30 * US);
+        assertBucket(histogram, 2, 120 * US);
+        assertBucket(histogram, 4, 700 * US);
+        assertBucket(histogram, 9, 20 * MS);
+        assertEquals(4, histogram.getCount());
+    }
+
+    @Test
+    public void resetDurations_areSpreadInMilliseconds() throws Exception {
+        mMetrics.onResetFinished(180 * MS);
+        mMetrics.onResetFinished(333 * MS);
+
+        SlideMetrics.Histogram histogram = mMetrics.getSnapshot(mSnapshot).getResetDurations();
+        // buckets are below 25, 50, 100, 200, 400 ms, ...
+        assertBucket(histogram, 3, 180 * MS);
+        assertBucket(histogram, 4, 333 * MS);
+        assertEquals(0, histogram.getBucketCount(SlideMetrics.Histogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void unlockLatencies_areSpreadUpToSeconds() throws Exception {
+        mMetrics.onUnlock(350 * MS);
+        mMetrics.onUnlock(1500 * MS);
+        mMetrics.onUnlock(60000 * MS);
+
+        SlideMetrics.Histogram histogram = mMetrics.getSnapshot(mSnapshot).getUnlockLatencies();
+        // buckets are below 50, 100, 200, 400, 800, 1600 ms, ...
+        assertBucket(histogram, 3, 350 * MS);
+        assertBucket(histogram, 5, 1500 * MS);
+        assertBucket(histogram, SlideMetrics.Histogram.BUCKET_COUNT - 1, 60000 * MS);
+        assertEquals(60000 * MS, histogram.getMaxNanos());
+    }
+
+    private static void assertBucket(SlideMetrics.Histogram histogram, int bucket, long nanos) {
+        assertEquals("bucket of " + nanos + " ns", 1, histogram.getBucketCount(bucket));
+        assertTrue(nanos < histogram.getBucketUpperBoundNanos(bucket));
+        if (bucket > 0)
+            assertTrue(nanos >= histogram.getBucketUpperBoundNanos(bucket - 1));
+    }
+}
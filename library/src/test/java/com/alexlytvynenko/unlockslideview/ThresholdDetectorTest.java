@@ -0,0 +1,44 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test for {@link ThresholdDetector}.
+ */
+public class ThresholdDetectorTest {
+
+    @Test
+    public void crossingTime_isInterpolated() throws Exception {
+        ThresholdDetector detector = new ThresholdDetector();
+        detector.start(100, 0, 0);
+
+        assertFalse(detector.onSample(60, 4000000));
+        // the threshold lies at the quarter between samples
+        assertTrue(detector.onSample(220, 8000000));
+        assertEquals(5000000, detector.getCrossingTimeNanos());
+        // reported only once per gesture
+        assertFalse(detector.onSample(50, 12000000));
+        assertFalse(detector.onSample(300, 16000000));
+        assertEquals(5000000, detector.getCrossingTimeNanos());
+    }
+
+    @Test
+    public void crossingSample_isReportedOnItself() throws Exception {
+        ThresholdDetector detector = new ThresholdDetector();
+        detector.start(100, 0, 0);
+
+        assertTrue(detector.onSample(100, 8000000));
+        assertEquals(8000000, detector.getCrossingTimeNanos());
+        assertTrue(detector.isCrossed());
+
+        detector.reset();
+        assertFalse(detector.isCrossed());
+        // without a previous sample the crossing time is the sample time
+        assertTrue(detector.onSample(150, 9000000));
+        assertEquals(9000000, detector.getCrossingTimeNanos());
+    }
+}
@@ -0,0 +1,287 @@
+package com.alexlytvynenko.unlockslideview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test for {@link UnlockSlideController}, the gesture logic of {@link UnlockSlideView}.
+ */
+public class UnlockSlideControllerTest {
+
+    private static final long MS = 1000000L;
+    private static final long FRAME_NANOS = 16 * MS;
+    private static final int GESTURES = 100000;
+
+    private UnlockSlideController mController;
+    private int mUnlocks;
+    private long mCrossingTimeNanos;
+    private long mResetDurationNanos;
+    private final StringBuilder mStates = new StringBuilder();
+
+    @Before
+    public void setUp() throws Exception {
+        SlideGeometry geometry = new SlideGeometry();
+        // thumb is 0..100, max progress is 900, progress to unlock is 850
+        geometry.update(1000, 100, 100, 100, 0, 150, 200, 0, 95);
+        mController = new UnlockSlideController(geometry);
+        mController.setResetDurationNanos(200 * MS);
+        mController.setListener(new UnlockSlideController.Listener() {
+            @Override
+            public void onStateChanged(int state) {
+                mStates.append(state);
+            }
+
+            @Override
+            public void onUnlock(long crossingTimeNanos) {
+                mUnlocks++;
+                mCrossingTimeNanos = crossingTimeNanos;
+            }
+
+            @Override
+            public void onResetFinished(long resetDurationNanos) {
+                mResetDurationNanos = resetDurationNanos;
+            }
+        });
+    }
+
+    @Test
+    public void dragToEnd_unlocksOnceAndResets() throws Exception {
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_DOWN, 50, 50, 0));
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_MOVE, 850, 50, 8 * MS));
+        assertEquals(0, mUnlocks);
+        // the progress to unlock lies at the half between samples
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_MOVE, 950, 50, 16 * MS));
+        assertEquals(1, mUnlocks);
+        assertEquals(12 * MS, mCrossingTimeNanos);
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_MOVE, 2000, 50, 24 * MS));
+        assertEquals(900, mController.getDragProgress());
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_UP, 2000, 50, 32 * MS));
+        assertEquals(1, mUnlocks);
+
+        runFrames(32 * MS);
+        assertEquals(0, mController.getDragProgress());
+        assertEquals(200 * MS - 200 * MS % FRAME_NANOS + FRAME_NANOS, mResetDurationNanos);
+        assertEquals("1320", mStates.toString());
+    }
+
+    @Test
+    public void release_resetsProportionally() throws Exception {
+        mController.onTouch(UnlockSlideController.ACTION_DOWN, 50, 50, 0);
+        mController.onTouch(UnlockSlideController.ACTION_MOVE, 500, 50, 8 * MS);
+        mController.onTouch(UnlockSlideController.ACTION_UP, 500, 50, 16 * MS);
+        assertTrue(mController.isAnimating());
+        // touches are ignored while the thumb goes back
+        assertFalse(mController.onTouch(UnlockSlideController.ACTION_DOWN, 450, 50, 20 * MS));
+
+        // 450 of 900 takes half of the reset duration
+        assertTrue(mController.onFrame(32 * MS));
+        assertTrue(mController.onFrame(32 * MS + 50 * MS));
+        assertEquals(225, mController.getDragProgress());
+        assertFalse(mController.onFrame(32 * MS + 100 * MS));
+        assertEquals(0, mController.getDragProgress());
+        assertEquals(100 * MS, mResetDurationNanos);
+        assertEquals(0, mUnlocks);
+        assertEquals("120", mStates.toString());
+    }
+
+    @Test
+    public void fastRelease_flingsToUnlock() throws Exception {
+        mController.setFlingEnabled(true);
+        mController.setFlingVelocity(600, 8000);
+        mController.setFlingDeceleration(10000);
+
+        mController.onTouch(UnlockSlideController.ACTION_DOWN, 50, 50, 0);
+        for (int i = 1; i <= 5; i++) {
+            mController.onTouch(UnlockSlideController.ACTION_MOVE, 50 + 40 * i, 50, i * 8 * MS);
+        }
+        // 5000 px/s projects 1250 px further
+        mController.onTouch(UnlockSlideController.ACTION_UP, 290, 50, 48 * MS);
+        assertTrue(mController.isAnimating());
+        assertEquals(0, mUnlocks);
+
+        runFrames(48 * MS);
+        assertEquals(1, mUnlocks);
+        assertEquals(0, mController.getDragProgress());
+        assertEquals("1320", mStates.toString());
+    }
+
+    @Test
+    public void jumpToIdleDuringFling_unlocksOnlyIfNotified() throws Exception {
+        mController.setFlingEnabled(true);
+        mController.setFlingVelocity(600, 8000);
+        mController.setFlingDeceleration(10000);
+
+        fling(0);
+        mController.onFrame(64 * MS);
+        // recycling cancels the fling without unlocking
+        mController.jumpToIdle(80 * MS, false);
+        assertEquals(0, mUnlocks);
+        assertFalse(mController.isAnimating());
+        assertEquals(0, mController.getDragProgress());
+        assertEquals(UnlockSlideController.STATE_IDLE, mController.getState());
+
+        // hiding the view reports the unlock the fling was going to make
+        fling(1000 * MS);
+        mController.onFrame(1064 * MS);
+        mController.jumpToIdle(1080 * MS, true);
+        assertEquals(1, mUnlocks);
+        assertEquals(1080 * MS, mCrossingTimeNanos);
+        assertEquals(0, mController.getDragProgress());
+    }
+
+    @Test
+    public void touchOutsideThumb_isIgnored() throws Exception {
+        assertFalse(mController.onTouch(UnlockSlideController.ACTION_DOWN, 150, 50, 0));
+        assertFalse(mController.onTouch(UnlockSlideController.ACTION_MOVE, 900, 50, 8 * MS));
+        assertFalse(mController.onTouch(UnlockSlideController.ACTION_UP, 900, 50, 16 * MS));
+        assertEquals(0, mController.getDragProgress());
+        assertEquals("", mStates.toString());
+    }
+
+    @Test
+    public void horizontalMove_dragsFromTouchSlop() throws Exception {
+        mController.setTouchSlop(16);
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_DOWN, 50, 50, 0));
+        // within the slop the direction isn't known yet
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_MOVE, 60, 60, 8 * MS));
+        assertFalse(mController.isPastTouchSlop());
+        assertEquals(0, mController.getDragProgress());
+
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_MOVE, 70, 58, 16 * MS));
+        assertTrue(mController.isPastTouchSlop());
+        // the thumb starts moving at the slop instead of jumping by it
+        assertEquals(4, mController.getDragProgress());
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_MOVE, 366, 80, 24 * MS));
+        assertEquals(300, mController.getDragProgress());
+    }
+
+    @Test
+    public void verticalMove_releasesThumb() throws Exception {
+        mController.setTouchSlop(16);
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_DOWN, 50, 50, 0));
+        assertFalse(mController.onTouch(UnlockSlideController.ACTION_MOVE, 60, 70, 8 * MS));
+        assertFalse(mController.isDragging());
+        assertFalse(mController.isAnimating());
+        // the rest of the gesture belongs to the parent
+        assertFalse(mController.onTouch(UnlockSlideController.ACTION_MOVE, 500, 70, 16 * MS));
+        assertFalse(mController.onTouch(UnlockSlideController.ACTION_UP, 500, 70, 24 * MS));
+        assertEquals(0, mController.getDragProgress());
+        assertEquals("10", mStates.toString());
+    }
+
+    @Test
+    public void tapOnThumb_doesNotMoveIt() throws Exception {
+        mController.setTouchSlop(16);
+        mController.onTouch(UnlockSlideController.ACTION_DOWN, 50, 50, 0);
+        assertTrue(mController.onTouch(UnlockSlideController.ACTION_UP, 60, 50, 80 * MS));
+        assertFalse(mController.isAnimating());
+        assertEquals(0, mController.getDragProgress());
+        assertEquals("10", mStates.toString());
+    }
+
+    @Test
+    public void randomGestures_keepInvariants() throws Exception {
+        mController.setFlingEnabled(true);
+        mController.setFlingVelocity(600, 8000);
+        mController.setFlingDeceleration(10000);
+        Random random = new Random(42);
+        long time = 0;
+        for (int gesture = 0; gesture < GESTURES / 10; gesture++) {
+            mController.setTouchSlop(random.nextBoolean() ? 16 : 0);
+            int unlocks = mUnlocks;
+            float x = random.nextFloat() * 120;
+            mController.onTouch(UnlockSlideController.ACTION_DOWN, x, random.nextFloat() * 100, time);
+            int moves = random.nextInt(30);
+            for (int i = 0; i < moves; i++) {
+                time += 1 + random.nextInt(20) * MS;
+                x += random.nextFloat() * 200 - 60;
+                mController.onTouch(UnlockSlideController.ACTION_MOVE, x, 50, time);
+                assertTrue(mController.getDragProgress() >= 0 && mController.getDragProgress() <= 900);
+            }
+            time += 8 * MS;
+            mController.onTouch(random.nextInt(4) == 0
+                    ? UnlockSlideController.ACTION_CANCEL
+                    : UnlockSlideController.ACTION_UP, x, 50, time);
+            time = runFrames(time);
+            assertTrue(mUnlocks - unlocks <= 1);
+            assertEquals(0, mController.getDragProgress());
+            assertEquals(UnlockSlideController.STATE_IDLE, mController.getState());
+        }
+    }
+
+    @Test
+    public void gestures_doNotAllocate() throws Exception {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        mController.setFlingEnabled(true);
+        mController.setFlingVelocity(600, 8000);
+        mController.setFlingDeceleration(10000);
+
+        // warm up to let the JIT compile the path
+        long checksum = runGestures() + runGestures();
+
+        long baseline = threadBean.getThreadAllocatedBytes(threadId);
+        long overhead = threadBean.getThreadAllocatedBytes(threadId) - baseline;
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        checksum += runGestures();
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before - overhead;
+
+        assertTrue(checksum != 0);
+        assertEquals("Bytes allocated for " + GESTURES + " gestures", 0, allocated);
+    }
+
+    /**
+     * Drag the thumb fast from the start and release it, it flings to unlock
+     */
+    private void fling(long time) {
+        mController.onTouch(UnlockSlideController.ACTION_DOWN, 50, 50, time);
+        for (int i = 1; i <= 5; i++) {
+            mController.onTouch(UnlockSlideController.ACTION_MOVE, 50 + 40 * i, 50, time + i * 8 * MS);
+        }
+        mController.onTouch(UnlockSlideController.ACTION_UP, 290, 50, time + 48 * MS);
+        assertTrue(mController.isAnimating());
+    }
+
+    /**
+     * Run frames until the animation ends
+     *
+     * @return time of the last frame
+     */
+    private long runFrames(long time) {
+        while (mController.isAnimating()) {
+            time += FRAME_NANOS;
+            mController.onFrame(time);
+        }
+        return time;
+    }
+
+    /**
+     * Drag to a position depending on the gesture index, release and run the animation
+     */
+    private long runGestures() {
+        long checksum = 0;
+        long time = 0;
+        for (int gesture = 0; gesture < GESTURES; gesture++) {
+            mController.onTouch(UnlockSlideController.ACTION_DOWN, 50, 50, time);
+            int step = 10 + gesture % 50;
+            for (int i = 1; i <= 10; i++) {
+                time += 8 * MS;
+                mController.onTouch(UnlockSlideController.ACTION_MOVE, 50 + step * i, 50, time);
+            }
+            checksum += mController.getDragProgress();
+            time += 8 * MS;
+            mController.onTouch(UnlockSlideController.ACTION_UP, 50 + step * 10, 50, time);
+            time = runFrames(time);
+        }
+        return checksum + mUnlocks;
+    }
+}